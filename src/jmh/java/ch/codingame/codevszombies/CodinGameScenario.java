@@ -0,0 +1,85 @@
+package ch.codingame.codevszombies;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test cases from coding game with submitted solutions, same as in CodinGameSolutionTest.
+ */
+public enum CodinGameScenario {
+
+    SIMPLE(
+            List.of(new Position(8250,8999)),
+            new Position(0, 0),
+            List.of(new Position(8250,4500)),
+            "8250 8999", "8250 8599", "8250 8199", "8250 7799", "8250 7399", "8250 6999", "8250 6599", "8250 6199", "8250 5799"
+    ),
+
+    TWO_ZOMBIES(
+            List.of(new Position(3100,7000), new Position(11500,7100)),
+            new Position(5000, 0),
+            List.of(new Position(950,6000), new Position(8000,6100)),
+            "8000 6100", "8000 6100", "8000 6100", "8000 6100", "8000 6100", "8000 6100", "950 6000", "1348 5963", "1746 5926", "2144 5889"
+    ),
+
+    TWO_ZOMBIES_REDUX(
+            List.of(new Position(1250,5500), new Position(15999,5500)),
+            new Position(10999,0),
+            List.of(new Position(8000,5500), new Position(4000,5500)),
+            "8000 5500", "8000 5500", "8000 5500", "8000 5500", "8000 5500", "8000 5500", "8000 5500", "4000 5500", "4000 5500",
+            "12723 4697", "12328 4764", "11933 4831", "11535 4874"
+    ),
+
+    COMBO_OPPORTUNITY(
+            List.of(
+                    new Position(8000,4500),
+                    new Position(9000,4500),
+                    new Position(10000,4500),
+                    new Position(11000,4500),
+                    new Position(12000,4500),
+                    new Position(13000,4500),
+                    new Position(14000,4500),
+                    new Position(15000,3500),
+                    new Position(14500,2500),
+                    new Position(15900,500)
+            ),
+            new Position(500,4500),
+            List.of(
+                    new Position(100,4000),
+                    new Position(130,5000),
+                    new Position(10,4500),
+                    new Position(500,3500),
+                    new Position(10,5500),
+                    new Position(100,3000)
+            ),
+            "8000 4500", "7600 4500", "7200 4500", "6800 4500", "7400 4500", "8000 4500", "8600 4500", "10200 4500", "10800 4500",
+            "11423 3882", "12262 2054"
+    );
+
+    private final List<Position> zombies;
+    private final Position ash;
+    private final List<Position> humans;
+    private final String[] moves;
+
+    CodinGameScenario(List<Position> zombies, Position ash, List<Position> humans, String... moves) {
+        this.zombies = zombies;
+        this.ash = ash;
+        this.humans = humans;
+        this.moves = moves;
+    }
+
+    public GameState initialState() {
+        return new GameState(new ArrayList<>(zombies), ash, new ArrayList<>(humans));
+    }
+
+    /**
+     * Submitted solution of the scenario, a new instance on every call.
+     */
+    public ISolution solution() {
+        return new StringListSolution(moves);
+    }
+
+    public int turns() {
+        return moves.length;
+    }
+}
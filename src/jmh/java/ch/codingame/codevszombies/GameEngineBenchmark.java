@@ -0,0 +1,36 @@
+package ch.codingame.codevszombies;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole games of the coding game scenarios played by their submitted solutions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEngineBenchmark {
+
+    @Param
+    private CodinGameScenario scenario;
+
+    private GameEngine engine;
+    private GameState initialState;
+    private ISolution solution;
+
+    @Setup
+    public void setUp() {
+        engine = new GameEngine();
+        initialState = scenario.initialState();
+        solution = scenario.solution();
+    }
+
+    @Benchmark
+    public int playGame() {
+        return engine.playGame(initialState, solution);
+    }
+}
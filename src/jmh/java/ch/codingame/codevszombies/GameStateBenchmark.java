@@ -0,0 +1,73 @@
+package ch.codingame.codevszombies;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single phases of a turn, measured on the state in the middle of the coding game scenarios. Every benchmark
+ * first restores the state, {@link #copyFrom()} is the baseline to subtract.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBenchmark {
+
+    @Param
+    private CodinGameScenario scenario;
+
+    /**
+     * State after half of the scenario's moves.
+     */
+    private GameState midGameState;
+
+    private GameState gameState;
+
+    @Setup
+    public void setUp() {
+        GameEngine engine = new GameEngine();
+        ISolution solution = scenario.solution();
+        solution.init();
+
+        midGameState = scenario.initialState();
+        for (int i = 0; i < scenario.turns() / 2 && !midGameState.isGameOver(); i++) {
+            engine.playTurn(midGameState, solution);
+        }
+        gameState = midGameState.clone();
+    }
+
+    @Benchmark
+    public GameState copyFrom() {
+        gameState.copyFrom(midGameState);
+        return gameState;
+    }
+
+    @Benchmark
+    public GameState moveZombies() {
+        gameState.copyFrom(midGameState);
+        gameState.moveZombies(GameEngine.ZOMBIE_RANGE);
+        return gameState;
+    }
+
+    @Benchmark
+    public GameState destroyZombies() {
+        gameState.copyFrom(midGameState);
+        gameState.destroyZombies(GameEngine.ASH_RANGE);
+        return gameState;
+    }
+
+    @Benchmark
+    public GameState eatHumans() {
+        gameState.copyFrom(midGameState);
+        gameState.eatHumans(GameEngine.ZOMBIE_RANGE);
+        return gameState;
+    }
+
+    @Benchmark
+    public GameState cloneState() {
+        return midGameState.clone();
+    }
+}
@@ -0,0 +1,58 @@
+package ch.codingame.codevszombies;
+
+import ch.codingame.codevszombies.scenario.ScenarioGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole games of generated scenarios with growing number of humans and zombies. Ash goes to the center of the map
+ * and stays there.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScenarioScalingBenchmark {
+
+    private static final int SCENARIOS = 16;
+
+    private static final int MOVES = 40;
+
+    /**
+     * Number of humans and number of zombies.
+     */
+    @Param({"1", "10", "100", "1000"})
+    private int entityCount;
+
+    @Param({"0", "0.8"})
+    private double clustering;
+
+    private GameEngine engine;
+    private GameState[] scenarios;
+    private ISolution solution;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        engine = new GameEngine();
+        scenarios = new ScenarioGenerator(42, entityCount, entityCount)
+                .withClustering(clustering, ScenarioGenerator.DEFAULT_CLUSTER_COUNT)
+                .stream()
+                .limit(SCENARIOS)
+                .toArray(GameState[]::new);
+
+        String[] moves = new String[MOVES];
+        Arrays.fill(moves, GameEngine.MAX_X / 2 + " " + GameEngine.MAX_Y / 2);
+        solution = new StringListSolution(moves);
+    }
+
+    @Benchmark
+    public int playGame() {
+        next = (next + 1) % SCENARIOS;
+        return engine.playGame(scenarios[next], solution);
+    }
+}
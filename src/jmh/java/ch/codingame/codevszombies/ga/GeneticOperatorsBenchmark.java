@@ -0,0 +1,111 @@
+package ch.codingame.codevszombies.ga;
+
+import ch.codingame.codevszombies.CodinGameScenario;
+import ch.codingame.codevszombies.GameEngine;
+import ch.codingame.codevszombies.GameState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Breeding and bookkeeping of one generation on a population with random genes and scores.
+ * {@link #evaluatePopulation()} is the evaluation of the same population, to compare the other benchmarks with.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneticOperatorsBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"100", "1000", "10000"})
+    private int populationSize;
+
+    @Param({"10", "40"})
+    private int chromosomeLength;
+
+    private AlgorithmConfiguration configuration;
+    private ContinuousGenericAlgorithm algorithm;
+
+    private GameState initialState;
+    private EvaluatedChromosome[] evaluatedPopulation;
+    private ChromosomeSolution[] population;
+    private ChromosomeSolution[] newPopulation;
+    private int[] scores;
+
+    private ChromosomeSolution child1;
+    private ChromosomeSolution child2;
+
+    @Setup
+    public void setUp() {
+        configuration = new AlgorithmConfiguration(populationSize, 1, populationSize / 2, chromosomeLength / 4, 0.3f, 0.05f, SEED, false, false, 0);
+        algorithm = new ContinuousGenericAlgorithm(GameEngine.MAX_X, GameEngine.MAX_Y, chromosomeLength);
+        initialState = CodinGameScenario.COMBO_OPPORTUNITY.initialState();
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        population = new ChromosomeSolution[populationSize];
+        newPopulation = new ChromosomeSolution[populationSize];
+        evaluatedPopulation = new EvaluatedChromosome[populationSize];
+        scores = new int[populationSize];
+        for (int i = 0; i < populationSize; i++) {
+            int[] genes = new int[chromosomeLength * 2];
+            for (int j = 0; j < genes.length; j += 2) {
+                genes[j] = random.nextInt(GameEngine.MAX_X);
+                genes[j + 1] = random.nextInt(GameEngine.MAX_Y);
+            }
+            population[i] = new ChromosomeSolution(genes);
+            newPopulation[i] = new ChromosomeSolution(new int[chromosomeLength * 2]);
+            evaluatedPopulation[i] = new EvaluatedChromosome(population[i], random.nextInt(100_000));
+        }
+        child1 = new ChromosomeSolution(new int[chromosomeLength * 2]);
+        child2 = new ChromosomeSolution(new int[chromosomeLength * 2]);
+    }
+
+    @Benchmark
+    public ChromosomeSolution[] generateNewPopulation() {
+        algorithm.generateNewPopulation(configuration, evaluatedPopulation, newPopulation);
+        return newPopulation;
+    }
+
+    @Benchmark
+    public ChromosomeSolution[] mutatePopulation() {
+        algorithm.mutatePopulation(configuration, newPopulation);
+        return newPopulation;
+    }
+
+    @Benchmark
+    public EvaluatedChromosome[] selectNBest() {
+        return algorithm.selectNBest(evaluatedPopulation, configuration.matingCount());
+    }
+
+    @Benchmark
+    public ChromosomeSolution[] mateWith() {
+        return evaluatedPopulation[0].mateWith(evaluatedPopulation[1], configuration.matingCoefficient(), configuration.crossoverPoint());
+    }
+
+    @Benchmark
+    public ChromosomeSolution mateInto() {
+        evaluatedPopulation[0].mateInto(evaluatedPopulation[1], configuration.matingCoefficient(), configuration.crossoverPoint(), child1, child2);
+        return child1;
+    }
+
+    /**
+     * New aggregator every time, otherwise it would keep all generations of the measurement.
+     */
+    @Benchmark
+    public ResultsAggregator addGeneration() {
+        ResultsAggregator aggregator = new ResultsAggregator();
+        aggregator.addGeneration(evaluatedPopulation, null);
+        return aggregator;
+    }
+
+    @Benchmark
+    public int[] evaluatePopulation() {
+        algorithm.evaluatePopulation(initialState, population, populationSize, scores, null, Integer.MIN_VALUE);
+        return scores;
+    }
+}
@@ -0,0 +1,101 @@
+package ch.codingame.codevszombies;
+
+/**
+ * Snapshots of one game taken by {@link GameEngine} after every turn, snapshot of turn 0 is the initial state.
+ * Game of a solution whose first moves are the same can be resumed from these snapshots instead of being
+ * played from the beginning, see {@link IResumableSolution}.
+ *
+ * All snapshots are stored in one int array, which is reused when the checkpoints are filled again.
+ */
+public class GameCheckpoints {
+
+    private final int expectedTurns;
+
+    private GameState initialGameState;
+    private int snapshotSize;
+    private int[] snapshots;
+    private int count;
+
+    public GameCheckpoints() {
+        this(0);
+    }
+
+    /**
+     * @param expectedTurns Number of turns the game is expected to take. Checkpoints grow if it takes longer.
+     */
+    public GameCheckpoints(int expectedTurns) {
+        this.expectedTurns = expectedTurns;
+    }
+
+    /**
+     * Number of stored snapshots, i.e. number of played turns + 1.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return True if the checkpoints were taken in a game started from given state.
+     */
+    boolean isOf(GameState initialGameState) {
+        return this.initialGameState == initialGameState;
+    }
+
+    /**
+     * Drop all snapshots, e.g. when the solution changed without being played again.
+     */
+    public void clear() {
+        this.initialGameState = null;
+        this.count = 0;
+    }
+
+    /**
+     * Drop all snapshots and prepare to store snapshots of a game started from given state.
+     */
+    void start(GameState initialGameState) {
+        this.initialGameState = initialGameState;
+        this.snapshotSize = initialGameState.snapshotSize();
+        this.count = 0;
+    }
+
+    /**
+     * Store snapshot of the state after the next turn.
+     */
+    void add(GameState gameState) {
+        ensureCapacity(count + 1);
+        gameState.writeSnapshot(snapshots, count * snapshotSize);
+        count++;
+    }
+
+    /**
+     * Replace snapshots by the first count snapshots of the other checkpoints.
+     */
+    void copyFrom(GameCheckpoints other, int count) {
+        start(other.initialGameState);
+        ensureCapacity(count);
+        System.arraycopy(other.snapshots, 0, snapshots, 0, count * snapshotSize);
+        this.count = count;
+    }
+
+    /**
+     * Overwrite the state by the snapshot taken after given turn.
+     *
+     * @param turn Turn to restore, must be < {@link #size()}.
+     * @param gameState State of the same scenario.
+     */
+    void restore(int turn, GameState gameState) {
+        gameState.readSnapshot(snapshots, turn * snapshotSize);
+    }
+
+    private void ensureCapacity(int snapshotCount) {
+        int required = snapshotCount * snapshotSize;
+        if (snapshots == null || snapshots.length < required) {
+            int capacity = Math.max(required, Math.max(expectedTurns + 1, snapshots == null ? 0 : snapshots.length / snapshotSize * 2) * snapshotSize);
+            int[] grown = new int[capacity];
+            if (snapshots != null) {
+                System.arraycopy(snapshots, 0, grown, 0, count * snapshotSize);
+            }
+            snapshots = grown;
+        }
+    }
+}
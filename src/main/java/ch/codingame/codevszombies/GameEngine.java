@@ -62,57 +62,214 @@ public class GameEngine {
 
     private GameplayRecorder gameplayRecorder;
 
+    private final GameEventListener listener;
+
+    /**
+     * State the games are played in. Reused by every game played by this engine.
+     */
+    private GameState scratchState;
+
+    public GameEngine() {
+        this(GameEventListener.NONE);
+    }
+
+    /**
+     * @param listener Listener to be notified about events in played games, e.g. {@link TracingGameEventListener}
+     *                 for debugging.
+     */
+    public GameEngine(GameEventListener listener) {
+        this.listener = listener;
+    }
+
     public int playGame(GameState initialGameState, ISolution solution, boolean recordGameplay) {
+        GameplayRecorder recorder = null;
+        if (recordGameplay) {
+            gameplayRecorder = new GameplayRecorder();
+            recorder = gameplayRecorder;
+        }
+        return play(initialGameState, solution, recorder, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Play the game, but stop it as soon as it can't reach the score threshold anymore, i.e. when
+     * {@link GameState#maxAchievableScore()} falls below it.
+     *
+     * @param initialGameState Initial state of the game. Not modified.
+     * @param solution Solution to play.
+     * @param scoreThreshold Score the game has to be able to reach to be played on.
+     * @return Final score or the score reached before the game was stopped. In both cases, game can't end with
+     *          better score than scoreThreshold if returned score is lower than scoreThreshold.
+     */
+    public int playGame(GameState initialGameState, ISolution solution, int scoreThreshold) {
+        return play(initialGameState, solution, null, scoreThreshold);
+    }
+
+    /**
+     * Play games of all solutions in the batch, each starting from the same initial state.
+     *
+     * @param initialGameState Initial state of every game. Not modified.
+     * @param batch Solutions to play.
+     * @param scoresOut Score of batch[i] is written to scoresOut[i].
+     */
+    public void playGames(GameState initialGameState, ISolution[] batch, int[] scoresOut) {
+        playGames(initialGameState, batch, scoresOut, null, 0, batch.length);
+    }
+
+    /**
+     * Play games of solutions batch[from] ... batch[to - 1], each starting from the same initial state.
+     *
+     * @param initialGameState Initial state of every game. Not modified.
+     * @param batch Solutions to play.
+     * @param scoresOut Score of batch[i] is written to scoresOut[i].
+     * @param gameplaysOut If not null, gameplay of batch[i] is recorded to gameplaysOut[i].
+     * @param from Index of the first solution to play.
+     * @param to Index after the last solution to play.
+     */
+    public void playGames(GameState initialGameState, ISolution[] batch, int[] scoresOut, GameplayRecorder[] gameplaysOut, int from, int to) {
+        playGames(initialGameState, batch, scoresOut, gameplaysOut, from, to, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Same as {@link #playGames(GameState, ISolution[], int[], GameplayRecorder[], int, int)}, but every game is stopped
+     * as soon as it can't reach the score threshold, see {@link #playGame(GameState, ISolution, int)}.
+     *
+     * @param scoreThreshold Score the game has to be able to reach to be played on.
+     */
+    public void playGames(GameState initialGameState, ISolution[] batch, int[] scoresOut, GameplayRecorder[] gameplaysOut, int from, int to, int scoreThreshold) {
+        for (int i = from; i < to; i++) {
+            GameplayRecorder recorder = null;
+            if (gameplaysOut != null) {
+                recorder = new GameplayRecorder();
+                gameplaysOut[i] = recorder;
+            }
+            scoresOut[i] = play(initialGameState, batch[i], recorder, scoreThreshold);
+        }
+    }
+
+    /**
+     * Play the game again with recording, e.g. a solution which was evaluated without it. The game is deterministic,
+     * so the gameplay is the same as in any other game of the solution which was not stopped by a score threshold.
+     *
+     * @param initialGameState Initial state of the game. Not modified.
+     * @param solution Solution to play.
+     * @return Recorded gameplay, {@link #getLastGameplayRecord()} is not changed.
+     */
+    public GameplayRecorder replay(GameState initialGameState, ISolution solution) {
+        GameplayRecorder recorder = new GameplayRecorder();
+        play(initialGameState, solution, recorder, Integer.MIN_VALUE);
+        return recorder;
+    }
+
+    public GameplayRecorder getLastGameplayRecord() {
+        return gameplayRecorder;
+    }
+
+    public int playGame(GameState initialGameState, ISolution solution) {
+        return playGame(initialGameState, solution, false);
+    }
+
+    /**
+     * Play the game until it's over. {@link IResumableSolution} is resumed from checkpoints if possible.
+     * @param initialGameState Initial state of the game. Not modified.
+     * @param solution Solution to play.
+     * @param recorder Recorder to record the gameplay with, null if the gameplay should not be recorded.
+     * @param scoreThreshold Game is stopped when it can't reach this score anymore.
+     * @return Final score or score reached before the game was stopped.
+     */
+    private int play(GameState initialGameState, ISolution solution, GameplayRecorder recorder, int scoreThreshold) {
         // todo: negative score on error/all humans dead
+        GameState gameState = prepareScratchState(initialGameState);
         int turnCounter = 1;
-        GameState gameState = initialGameState.clone();
         solution.init();
-        if (recordGameplay) {
-            gameplayRecorder = new GameplayRecorder();
+        if (recorder != null) {
+            recorder.recordGameState(gameState);
         }
-        if (recordGameplay) {
-            gameplayRecorder.recordGameState(gameState);
+        GameCheckpoints checkpoints = null;
+        if (solution instanceof IResumableSolution resumableSolution) {
+            checkpoints = resumableSolution.getCheckpoints();
+            // recorded game is played from the beginning
+            int skippedTurns = recorder == null ? resume(initialGameState, gameState, resumableSolution, checkpoints) : 0;
+            if (skippedTurns == 0 && checkpoints != null) {
+                checkpoints.start(initialGameState);
+                checkpoints.add(gameState);
+            }
+            turnCounter += skippedTurns;
         }
-        while (!gameState.isGameOver()) {
-            System.err.println("Turn " + turnCounter++);
+        while (!gameState.isGameOver() && gameState.maxAchievableScore() >= scoreThreshold) {
+            listener.turnStarted(turnCounter++);
             //gameState.printState();
             playTurn(gameState, solution);
 
-            if (recordGameplay) {
-                gameplayRecorder.recordGameState(gameState);
+            if (recorder != null) {
+                recorder.recordGameState(gameState);
+            }
+            if (checkpoints != null) {
+                checkpoints.add(gameState);
             }
         }
 
-        if (recordGameplay) {
-            gameplayRecorder.recordRemainingHumans(gameState);
+        if (recorder != null) {
+            recorder.recordRemainingHumans(gameState);
         }
         return gameState.getScore();
     }
 
-    public GameplayRecorder getLastGameplayRecord() {
-        return gameplayRecorder;
+    /**
+     * Restore the state from the checkpoints of the other solution at the first move in which the solutions differ.
+     * Listener is not notified about the skipped turns.
+     *
+     * @param initialGameState Initial state of the game.
+     * @param gameState State to restore, it's a copy of the initial state.
+     * @param solution Solution to resume, skipped moves are skipped in it too.
+     * @param checkpoints Checkpoints of the solution, filled by snapshots of the skipped turns. May be null.
+     * @return Number of skipped turns, 0 if the game can't be resumed.
+     */
+    private int resume(GameState initialGameState, GameState gameState, IResumableSolution solution, GameCheckpoints checkpoints) {
+        GameCheckpoints resumeCheckpoints = solution.getResumeCheckpoints();
+        int turn = 0;
+        if (resumeCheckpoints != null && resumeCheckpoints != checkpoints && resumeCheckpoints.isOf(initialGameState)) {
+            turn = Math.min(solution.getFirstChangedMove(), resumeCheckpoints.size() - 1);
+        }
+
+        if (turn > 0) {
+            resumeCheckpoints.restore(turn, gameState);
+            solution.skipMoves(turn);
+            if (checkpoints != null) {
+                checkpoints.copyFrom(resumeCheckpoints, turn + 1);
+            }
+            return turn;
+        }
+        return 0;
     }
 
-    public int playGame(GameState initialGameState, ISolution solution) {
-        return playGame(initialGameState, solution, false);
+    /**
+     * Copy the initial state to the scratch state so that game can be played without modifying the initial state.
+     */
+    private GameState prepareScratchState(GameState initialGameState) {
+        if (scratchState == null) {
+            scratchState = initialGameState.clone();
+            scratchState.setListener(listener);
+        } else {
+            scratchState.copyFrom(initialGameState);
+        }
+        return scratchState;
     }
 
     void playTurn(GameState gameState, ISolution solution) {
         if (!solution.hasNextMove()) {
-            System.err.println("No more moves, game over");
             gameState.noMoreMoves();
             return;
         }
 
         // todo: pass game state to solution, so that it's able to calculate the next move
         // get player's input
-        Position playersInput = parsePosition(solution.getNextMove());
+        long playersInput = solution.getNextMovePacked();
 
         // move zombies
         gameState.moveZombies(ZOMBIE_RANGE);
 
         // move Ash
-        gameState.moveAsh(playersInput, ASH_SPEED);
+        gameState.moveAsh(Position.unpackX(playersInput), Position.unpackY(playersInput), ASH_SPEED);
 
         // destroy zombies
         gameState.destroyZombies(ASH_RANGE);
@@ -120,12 +277,4 @@ public class GameEngine {
         // zombies eat humans
         gameState.eatHumans(ZOMBIE_RANGE);
     }
-
-    private Position parsePosition(String move) {
-        if (move == null) {
-            return null;
-        }
-        String[] parts = move.split(" ");
-        return new Position(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
-    }
 }
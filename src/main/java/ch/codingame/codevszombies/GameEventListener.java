@@ -0,0 +1,39 @@
+package ch.codingame.codevszombies;
+
+/**
+ * Listener notified about events happening during the game. All methods do nothing by default,
+ * so implementations only override events they are interested in.
+ */
+public interface GameEventListener {
+
+    /**
+     * Listener which ignores all events. Used by default, so that the game simulation doesn't
+     * pay for any logging.
+     */
+    GameEventListener NONE = new GameEventListener() {};
+
+    default void turnStarted(int turn) {}
+
+    /**
+     * Zombie is already standing on the closest human and doesn't move.
+     */
+    default void zombieAtHuman(int zombieId, int x, int y) {}
+
+    /**
+     * Zombie got less than its range from the closest human and moved onto its coordinates.
+     */
+    default void zombieMovedToHuman(int zombieId, int x, int y) {}
+
+    default void ashMoved(int x, int y) {}
+
+    default void zombieKilled(int zombieId, int x, int y) {}
+
+    default void humanEaten(int humanId, int x, int y) {}
+
+    default void allHumansEaten() {}
+
+    /**
+     * Solution ran out of moves, game is over.
+     */
+    default void noMoreMoves() {}
+}
@@ -1,55 +1,261 @@
 package ch.codingame.codevszombies;
 import java.util.*;
 
+/**
+ * State of one game. Entities are kept in parallel primitive arrays ordered by id, so
+ * that simulating a turn doesn't allocate anything.
+ */
 public class GameState {
 
     public static final int[] FIB_SEQ = new int[] {0, 1, 1, 2, 3, 5, 8, 13, 21, 34, 55, 89, 144};
 
     /**
-     * Zombies ordered by id. Zombies are kept and if zombie dies, null is put in its place.
+     * Returned by {@link #findClosestHuman(int, int)} when Ash is the closest human.
      */
-    private final List<Position> zombies;
+    private static final int ASH = -1;
 
-    private Position ash;
+    /**
+     * Scenarios with fewer humans than this are faster to scan one by one than to index with {@link HumanGrid}.
+     */
+    private static final int HUMAN_GRID_MIN_HUMANS = 16;
+
+    /**
+     * Zombie coordinates ordered by id. Zombies are kept and if zombie dies, its bit in {@link #zombieAlive}
+     * is cleared.
+     */
+    private int[] zombieX;
+    private int[] zombieY;
+
+    /**
+     * Bit set of alive zombies, bit (id % 64) of word (id / 64) is set when zombie with given id is alive.
+     */
+    private long[] zombieAlive;
+    private int zombiesAlive;
+
+    private int ashX;
+    private int ashY;
+
+    /**
+     * Human coordinates ordered by id. Humans never move, if human is eaten, its flag in {@link #humanAlive}
+     * is cleared. Coordinate arrays are never modified and are shared between copies of the state.
+     */
+    private int[] humanX;
+    private int[] humanY;
+    private boolean[] humanAlive;
+    private int humansAlive;
+
+    /**
+     * Index over human positions, built once per scenario and shared by copies. Null for small scenarios.
+     */
+    private HumanGrid humanGrid;
 
     /**
-     * Humans ordered by id.
+     * Humans marked in {@link #eatHumans(int)} as being in range of some zombie. Marked with the value
+     * of {@link #eatCheck}, so the array never has to be cleared.
      */
-    private final List<Position> humans;
+    private int[] humanInRange;
+    private int eatCheck;
 
     private int score;
 
     /**
-     * Hash codes of zombies that have already played this turn and should not eat any humans.
-     * Cleared every turn in {@link #moveZombies(int)}.
+     * Number of the current turn, increased every turn in {@link #moveZombies(int)}.
      */
-    private Set<Integer> zombiesPlayed = new HashSet<>();
+    private int zombieTurn = 1;
+
+    /**
+     * Zombies ordered by id. Zombie has already played this turn and should not eat any humans
+     * if its value equals to {@link #zombieTurn}.
+     */
+    private int[] zombiePlayedTurn;
 
     // game over when set to true
     private boolean noMoreMoves = false;
 
+    private GameEventListener listener = GameEventListener.NONE;
+
+    /**
+     * State this state was last copied from, used by {@link #reset()}.
+     */
+    private GameState source;
+
     public GameState(List<Position> zombies, Position ash, List<Position> humans) {
-        this.zombies = zombies;
-        this.ash = ash;
-        this.humans = humans;
+        this(zombies, ash, humans, HUMAN_GRID_MIN_HUMANS);
+    }
+
+    /**
+     * @param humanGridMinHumans Humans are indexed by {@link HumanGrid} when there are at least this many of them.
+     */
+    GameState(List<Position> zombies, Position ash, List<Position> humans, int humanGridMinHumans) {
+        this.zombieX = new int[zombies.size()];
+        this.zombieY = new int[zombies.size()];
+        this.zombieAlive = new long[bitSetWords(zombies.size())];
+        this.zombiePlayedTurn = new int[zombies.size()];
+        for (int zombieId = 0; zombieId < zombies.size(); zombieId++) {
+            Position zombie = zombies.get(zombieId);
+            if (zombie != null) {
+                zombieX[zombieId] = zombie.x();
+                zombieY[zombieId] = zombie.y();
+                zombieAlive[zombieId >> 6] |= 1L << zombieId;
+                zombiesAlive++;
+            }
+        }
+
+        this.ashX = ash.x();
+        this.ashY = ash.y();
+
+        this.humanX = new int[humans.size()];
+        this.humanY = new int[humans.size()];
+        this.humanAlive = new boolean[humans.size()];
+        for (int humanId = 0; humanId < humans.size(); humanId++) {
+            humanX[humanId] = humans.get(humanId).x();
+            humanY[humanId] = humans.get(humanId).y();
+            humanAlive[humanId] = true;
+        }
+        this.humansAlive = humans.size();
+        this.humanInRange = new int[humans.size()];
+        if (humans.size() >= humanGridMinHumans) {
+            this.humanGrid = new HumanGrid(humanX, humanY, GameEngine.MAX_X, GameEngine.MAX_Y);
+        }
         this.score = 0;
     }
 
+    private GameState(GameState other) {
+        this.zombieX = new int[other.zombieX.length];
+        this.zombieY = new int[other.zombieY.length];
+        this.zombieAlive = new long[other.zombieAlive.length];
+        this.zombiePlayedTurn = new int[other.zombiePlayedTurn.length];
+        this.humanAlive = new boolean[other.humanAlive.length];
+        this.humanInRange = new int[other.humanAlive.length];
+        this.listener = other.listener;
+        copyFrom(other);
+    }
+
     /**
      * Clones the state as it is.
      */
     public GameState clone() {
-        List<Position> newZombies = new ArrayList<>();
-        for (Position zombie : zombies) {
-            newZombies.add(zombie.clone());
+        return new GameState(this);
+    }
+
+    /**
+     * Overwrite this state with the other one. Arrays of this state are reused, so copying a state
+     * of the same size doesn't allocate anything. Listener of this state is kept.
+     *
+     * @param other State to copy.
+     */
+    public void copyFrom(GameState other) {
+        if (zombieX.length != other.zombieX.length) {
+            zombieX = new int[other.zombieX.length];
+            zombieY = new int[other.zombieY.length];
+            zombieAlive = new long[other.zombieAlive.length];
+            zombiePlayedTurn = new int[other.zombiePlayedTurn.length];
         }
+        System.arraycopy(other.zombieX, 0, zombieX, 0, zombieX.length);
+        System.arraycopy(other.zombieY, 0, zombieY, 0, zombieY.length);
+        System.arraycopy(other.zombieAlive, 0, zombieAlive, 0, zombieAlive.length);
+        zombiesAlive = other.zombiesAlive;
+
+        ashX = other.ashX;
+        ashY = other.ashY;
+
+        // humans never move
+        humanX = other.humanX;
+        humanY = other.humanY;
+        humanGrid = other.humanGrid;
+        if (humanAlive.length != other.humanAlive.length) {
+            humanAlive = new boolean[other.humanAlive.length];
+            humanInRange = new int[other.humanAlive.length];
+        }
+        System.arraycopy(other.humanAlive, 0, humanAlive, 0, humanAlive.length);
+        humansAlive = other.humansAlive;
+
+        score = other.score;
+        noMoreMoves = other.noMoreMoves;
+        // no zombie has played in the copied turn
+        zombieTurn++;
+        source = other;
+    }
 
-        List<Position> newHumans = new ArrayList<>();
-        for (Position human : humans) {
-            newHumans.add(human.clone());
+    /**
+     * Overwrite this state with the state it was last copied from by {@link #copyFrom(GameState)}.
+     */
+    public void reset() {
+        if (source == null) {
+            throw new IllegalStateException("State was never copied from other state.");
         }
+        copyFrom(source);
+    }
 
-        return new GameState(newZombies, ash.clone(), newHumans);
+    /**
+     * Number of ints needed by {@link #writeSnapshot(int[], int)}. Same for all states of one scenario.
+     */
+    int snapshotSize() {
+        return 6 + 2 * zombieX.length + 2 * zombieAlive.length + ((humanAlive.length + 31) >> 5);
+    }
+
+    /**
+     * Write the parts of the state which change during the game to the buffer. Humans' coordinates are not written,
+     * so the snapshot can only be read by a state of the same scenario.
+     *
+     * @param buffer Buffer to write to, must have at least {@link #snapshotSize()} ints from offset.
+     * @param offset Index to start writing at.
+     */
+    void writeSnapshot(int[] buffer, int offset) {
+        buffer[offset++] = ashX;
+        buffer[offset++] = ashY;
+        buffer[offset++] = score;
+        buffer[offset++] = noMoreMoves ? 1 : 0;
+        buffer[offset++] = zombiesAlive;
+        buffer[offset++] = humansAlive;
+        System.arraycopy(zombieX, 0, buffer, offset, zombieX.length);
+        offset += zombieX.length;
+        System.arraycopy(zombieY, 0, buffer, offset, zombieY.length);
+        offset += zombieY.length;
+        for (long word : zombieAlive) {
+            buffer[offset++] = (int) word;
+            buffer[offset++] = (int) (word >>> 32);
+        }
+        for (int humanId = 0; humanId < humanAlive.length; humanId += 32) {
+            int word = 0;
+            for (int bit = 0; bit < 32 && humanId + bit < humanAlive.length; bit++) {
+                if (humanAlive[humanId + bit]) {
+                    word |= 1 << bit;
+                }
+            }
+            buffer[offset++] = word;
+        }
+    }
+
+    /**
+     * Overwrite this state with the snapshot written by {@link #writeSnapshot(int[], int)} of a state
+     * of the same scenario.
+     *
+     * @param buffer Buffer to read from.
+     * @param offset Index to start reading at.
+     */
+    void readSnapshot(int[] buffer, int offset) {
+        ashX = buffer[offset++];
+        ashY = buffer[offset++];
+        score = buffer[offset++];
+        noMoreMoves = buffer[offset++] == 1;
+        zombiesAlive = buffer[offset++];
+        humansAlive = buffer[offset++];
+        System.arraycopy(buffer, offset, zombieX, 0, zombieX.length);
+        offset += zombieX.length;
+        System.arraycopy(buffer, offset, zombieY, 0, zombieY.length);
+        offset += zombieY.length;
+        for (int word = 0; word < zombieAlive.length; word++) {
+            zombieAlive[word] = (buffer[offset++] & 0xFFFFFFFFL) | ((long) buffer[offset++] << 32);
+        }
+        for (int humanId = 0; humanId < humanAlive.length; humanId += 32) {
+            int word = buffer[offset++];
+            for (int bit = 0; bit < 32 && humanId + bit < humanAlive.length; bit++) {
+                humanAlive[humanId + bit] = (word & (1 << bit)) != 0;
+            }
+        }
+        // no zombie has played in the restored turn
+        zombieTurn++;
     }
 
     public int getScore() {
@@ -62,33 +268,42 @@ public class GameState {
      * @param zombieSpeed How many units to move.
      */
     public void moveZombies(int zombieSpeed) {
-        zombiesPlayed.clear();
+        zombieTurn++;
 
-        // iterate over zombies
+        // iterate over alive zombies
         // move each zombie towards closest human
-        for (int zombieId = 0; zombieId < zombies.size(); zombieId++) {
-            Position zombie = zombies.get(zombieId);
-            if (zombie == null) {
-                continue;
+        for (int word = 0; word < zombieAlive.length; word++) {
+            for (long bits = zombieAlive[word]; bits != 0; bits &= bits - 1) {
+                moveZombie((word << 6) + Long.numberOfTrailingZeros(bits), zombieSpeed);
             }
+        }
+    }
 
-            Position closestHuman = findClosestHuman(zombie);
-
-            if (zombie.equals(closestHuman)) {
-                System.err.println("Zombie "+zombieId+" is already at the closest human: " + closestHuman);
-                continue;
-            }
+    /**
+     * Move one zombie to the closest human (including Ash).
+     */
+    private void moveZombie(int zombieId, int zombieSpeed) {
+        int closestHuman = findClosestHuman(zombieX[zombieId], zombieY[zombieId]);
+        int targetX = closestHuman == ASH ? ashX : humanX[closestHuman];
+        int targetY = closestHuman == ASH ? ashY : humanY[closestHuman];
+
+        int dx = targetX - zombieX[zombieId];
+        int dy = targetY - zombieY[zombieId];
+        if (dx == 0 && dy == 0) {
+            listener.zombieAtHuman(zombieId, targetX, targetY);
+            return;
+        }
 
-            zombies.set(zombieId, zombie.moveTo(closestHuman, zombieSpeed));
-            zombie = zombies.get(zombieId);
+        double length = Math.sqrt(dx * dx + dy * dy);
+        zombieX[zombieId] = step(zombieX[zombieId], dx, length, zombieSpeed);
+        zombieY[zombieId] = step(zombieY[zombieId], dy, length, zombieSpeed);
 
-            // if zombie is < range from human, it will move to human's position BUT NOT EAT IT
-            if (zombie.squareDistanceFrom(closestHuman) < (zombieSpeed*zombieSpeed)) {
-                System.err.println("Zombie "+zombieId+" is moving to the closest human: " + closestHuman);
-                zombie = closestHuman.clone();
-                zombies.set(zombieId, zombie);
-                zombiesPlayed.add(zombie.hashCode());
-            }
+        // if zombie is < range from human, it will move to human's position BUT NOT EAT IT
+        if (squareDistance(zombieX[zombieId], zombieY[zombieId], targetX, targetY) < (zombieSpeed*zombieSpeed)) {
+            listener.zombieMovedToHuman(zombieId, targetX, targetY);
+            zombieX[zombieId] = targetX;
+            zombieY[zombieId] = targetY;
+            zombiePlayedTurn[zombieId] = zombieTurn;
         }
     }
 
@@ -98,13 +313,29 @@ public class GameState {
      * @param ashSpeed How many units to move.
      */
     public void moveAsh(Position direction, int ashSpeed) {
+        moveAsh(direction.x(), direction.y(), ashSpeed);
+    }
+
+    /**
+     * Move ash towards given coordinates by given number of units.
+     * @param x X coordinate to move towards.
+     * @param y Y coordinate to move towards.
+     * @param ashSpeed How many units to move.
+     */
+    public void moveAsh(int x, int y, int ashSpeed) {
+        int dx = x - ashX;
+        int dy = y - ashY;
+
         // ...or onto the target coordinates if he is less than 1000 units away.
-        if (ash.squareDistanceFrom(direction) <= (ashSpeed*ashSpeed)){
-            ash = direction;
+        if (dx * dx + dy * dy <= (ashSpeed*ashSpeed)){
+            ashX = x;
+            ashY = y;
         } else {
-            ash = ash.moveTo(direction, ashSpeed);
+            double length = Math.sqrt(dx * dx + dy * dy);
+            ashX = step(ashX, dx, length, ashSpeed);
+            ashY = step(ashY, dy, length, ashSpeed);
         }
-        System.err.println("Ash moved to: " + ash);
+        listener.ashMoved(ashX, ashY);
     }
 
     /**
@@ -120,20 +351,23 @@ public class GameState {
      */
     public void destroyZombies(int ashRange) {
         int kills = 0;
-        for (int zombieId = zombies.size() - 1; zombieId >= 0; zombieId--) {
-            Position zombie = zombies.get(zombieId);
-            if (zombie == null) {
-                continue;
-            }
-
-            if (zombie.squareDistanceFrom(ash) < (ashRange*ashRange)) {
-                kills++;
-                zombies.set(zombieId, null);
-                System.err.println("Zombie "+zombieId+" killed: " + zombie);
+        for (int word = zombieAlive.length - 1; word >= 0; word--) {
+            // from the highest id to the lowest one
+            for (long bits = zombieAlive[word]; bits != 0; ) {
+                int bit = 63 - Long.numberOfLeadingZeros(bits);
+                bits &= ~(1L << bit);
+                int zombieId = (word << 6) + bit;
+
+                if (squareDistance(zombieX[zombieId], zombieY[zombieId], ashX, ashY) < (ashRange*ashRange)) {
+                    kills++;
+                    zombieAlive[word] &= ~(1L << bit);
+                    listener.zombieKilled(zombieId, zombieX[zombieId], zombieY[zombieId]);
+                }
             }
         }
 
-        score += calculateScore(kills);
+        zombiesAlive -= kills;
+        score = (int) Math.min(Integer.MAX_VALUE, (long) score + calculateScore(kills));
     }
 
     /**
@@ -141,29 +375,78 @@ public class GameState {
      * @param zombieRange Zombie's range.
      */
     public void eatHumans(int zombieRange) {
-        for (int i = humans.size() - 1; i >= 0; i--) {
-            Position human = humans.get(i);
-            for (int zombieId = 0; zombieId < zombies.size(); zombieId++) {
-                Position zombie = zombies.get(zombieId);
-                if (zombie == null || zombiesPlayed.contains(zombie.hashCode())) {
+        if (humanGrid != null && !markHumansInRange(zombieRange)) {
+            // nobody is going to be eaten
+            return;
+        }
+
+        // once a zombie moves onto eaten human, it may get in range of humans which weren't marked
+        boolean zombieMoved = false;
+        for (int i = humanX.length - 1; i >= 0; i--) {
+            if (!humanAlive[i]) {
+                continue;
+            }
+            if (humanGrid != null && !zombieMoved && humanInRange[i] != eatCheck) {
+                continue;
+            }
+            int zombieId = findZombieInRange(humanX[i], humanY[i], zombieRange);
+            if (zombieId == -1) {
+                continue;
+            }
+
+            listener.humanEaten(i, humanX[i], humanY[i]);
+            humanAlive[i] = false;
+            humansAlive--;
+
+            // check if there's any human left
+            if (humansAlive == 0) {
+                listener.allHumansEaten();
+                score = 0;
+            }
+
+            // zombie moves to human's coordinates
+            zombieX[zombieId] = humanX[i];
+            zombieY[zombieId] = humanY[i];
+            zombieMoved = true;
+        }
+    }
+
+    /**
+     * Find alive zombie with the lowest id which is in range of given coordinates and can eat this turn.
+     * @return Id of the zombie or -1 if there's no such zombie.
+     */
+    private int findZombieInRange(int x, int y, int zombieRange) {
+        for (int word = 0; word < zombieAlive.length; word++) {
+            for (long bits = zombieAlive[word]; bits != 0; bits &= bits - 1) {
+                int zombieId = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (zombiePlayedTurn[zombieId] == zombieTurn) {
                     continue;
                 }
-                if (zombie.squareDistanceFrom(human) < (zombieRange*zombieRange)) {
-                    System.err.println("Human eaten: " + human);
-                    humans.remove(i);
-
-                    // check if there's any human left
-                    if (humans.isEmpty()) {
-                        System.err.println("All humans eaten!");
-                        score = 0;
-                    }
-
-                    // zombie moves to human's coordinates
-                    zombies.set(zombieId, human.clone());
-                    break;
+                if (squareDistance(zombieX[zombieId], zombieY[zombieId], x, y) < (zombieRange*zombieRange)) {
+                    return zombieId;
                 }
             }
         }
+        return -1;
+    }
+
+    /**
+     * Use {@link #humanGrid} to mark humans which are in range of zombies that can eat this turn.
+     * @return True if any human was marked.
+     */
+    private boolean markHumansInRange(int zombieRange) {
+        eatCheck++;
+        boolean anyMarked = false;
+        for (int word = 0; word < zombieAlive.length; word++) {
+            for (long bits = zombieAlive[word]; bits != 0; bits &= bits - 1) {
+                int zombieId = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (zombiePlayedTurn[zombieId] == zombieTurn) {
+                    continue;
+                }
+                anyMarked |= humanGrid.markWithin(zombieX[zombieId], zombieY[zombieId], zombieRange, humanAlive, humanInRange, eatCheck);
+            }
+        }
+        return anyMarked;
     }
 
     /**
@@ -171,40 +454,81 @@ public class GameState {
      * @return True if there are no humans left.
      */
     public boolean isGameOver() {
-        return humans.isEmpty() || !anyZombiesLeft() || noMoreMoves;
+        return humansAlive == 0 || !anyZombiesLeft() || noMoreMoves;
     }
 
     boolean anyZombiesLeft() {
-        return zombies.stream().anyMatch(Objects::nonNull);
+        return zombiesAlive > 0;
     }
 
     public void printState() {
-        System.err.println("Ash: " + ash);
-        System.err.println("Humans: " + humans);
-        System.err.println("Zombies: " + zombies);
+        System.err.println("Ash: " + getAsh());
+        System.err.println("Humans: " + getHumans());
+        System.err.println("Zombies: " + getZombies());
     }
 
     int calculateScore(int killsInTurn) {
-        int fib = 0;
-        for (int i = 0; i < killsInTurn; i++) {
-            fib += FIB_SEQ[i+2];
+        long worth = (long) humansAlive * humansAlive * 10 * fibonacciSum(killsInTurn);
+        return (int) Math.min(Integer.MAX_VALUE, worth);
+    }
+
+    /**
+     * Optimistic upper bound of the final score: all remaining zombies are killed in one turn
+     * and no more humans are eaten. Score can't get any higher than this.
+     */
+    public int maxAchievableScore() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) score + calculateScore(zombiesAlive));
+    }
+
+    /**
+     * Sum of multipliers of zombies killed in one turn, i.e. FIB_SEQ[2] + ... + FIB_SEQ[kills+1],
+     * computed past the end of {@link #FIB_SEQ}. Saturates at {@link Integer#MAX_VALUE}.
+     */
+    static long fibonacciSum(int kills) {
+        long sum = 0;
+        long fib = 1;
+        long nextFib = 2;
+        for (int i = 0; i < kills && sum < Integer.MAX_VALUE; i++) {
+            sum += fib;
+            long tmp = fib + nextFib;
+            fib = nextFib;
+            nextFib = tmp;
         }
-        return humans.size()*humans.size() * 10 * fib;
+        return Math.min(Integer.MAX_VALUE, sum);
     }
 
+    /**
+     * Zombies ordered by id, dead zombies are represented by null. The list is created on every call.
+     */
     public List<Position> getZombies() {
+        List<Position> zombies = new ArrayList<>(zombieX.length);
+        for (int zombieId = 0; zombieId < zombieX.length; zombieId++) {
+            zombies.add(isZombieAlive(zombieId) ? new Position(zombieX[zombieId], zombieY[zombieId]) : null);
+        }
         return zombies;
     }
 
-    private Position findClosestHuman(Position zombie) {
+    /**
+     * Index of the closest human (including Ash) to given coordinates.
+     * @return Index of the human or {@link #ASH}.
+     */
+    private int findClosestHuman(int x, int y) {
         // try Ash first
-        Position nearestHuman = ash;
-        int nearestDistance = zombie.squareDistanceFrom(ash);
+        int nearestHuman = ASH;
+        int nearestDistance = squareDistance(x, y, ashX, ashY);
+
+        if (humanGrid != null) {
+            int closest = humanGrid.findClosest(x, y, nearestDistance, humanAlive);
+            return closest == -1 ? ASH : closest;
+        }
 
-        for (Position human : humans) {
-            int distance = zombie.squareDistanceFrom(human);
+        for (int humanId = 0; humanId < humanX.length; humanId++) {
+            if (!humanAlive[humanId]) {
+                continue;
+            }
+            int distance = squareDistance(x, y, humanX[humanId], humanY[humanId]);
             if (distance < nearestDistance) {
-                nearestHuman = human;
+                nearestHuman = humanId;
                 nearestDistance = distance;
             }
         }
@@ -212,12 +536,67 @@ public class GameState {
         return nearestHuman;
     }
 
+    /**
+     * Humans which are still alive ordered by id. The list is created on every call.
+     */
     public List<Position> getHumans() {
+        List<Position> humans = new ArrayList<>(humansAlive);
+        for (int humanId = 0; humanId < humanX.length; humanId++) {
+            if (humanAlive[humanId]) {
+                humans.add(new Position(humanX[humanId], humanY[humanId]));
+            }
+        }
         return humans;
     }
 
     public Position getAsh() {
-        return ash;
+        return new Position(ashX, ashY);
+    }
+
+    public int getAshX() {
+        return ashX;
+    }
+
+    public int getAshY() {
+        return ashY;
+    }
+
+    /**
+     * @return Number of zombies including the dead ones, zombie ids are 0 ... zombieCount() - 1.
+     */
+    public int zombieCount() {
+        return zombieX.length;
+    }
+
+    public int getZombieX(int zombieId) {
+        return zombieX[zombieId];
+    }
+
+    public int getZombieY(int zombieId) {
+        return zombieY[zombieId];
+    }
+
+    public boolean isZombieAlive(int zombieId) {
+        return (zombieAlive[zombieId >> 6] & (1L << zombieId)) != 0;
+    }
+
+    /**
+     * @return Number of humans including the eaten ones, human ids are 0 ... humanCount() - 1.
+     */
+    public int humanCount() {
+        return humanX.length;
+    }
+
+    public int getHumanX(int humanId) {
+        return humanX[humanId];
+    }
+
+    public int getHumanY(int humanId) {
+        return humanY[humanId];
+    }
+
+    public boolean isHumanAlive(int humanId) {
+        return humanAlive[humanId];
     }
 
     public void nullScore() {
@@ -227,5 +606,31 @@ public class GameState {
     public void noMoreMoves() {
         score = 0;
         noMoreMoves = true;
+        listener.noMoreMoves();
+    }
+
+    /**
+     * Set listener to be notified about events in this game.
+     * @param listener Listener, {@link GameEventListener#NONE} to ignore events.
+     */
+    public void setListener(GameEventListener listener) {
+        this.listener = listener;
+    }
+
+    private static int bitSetWords(int bits) {
+        return (bits + 63) >> 6;
+    }
+
+    private static int squareDistance(int x1, int y1, int x2, int y2) {
+        int dx = x1 - x2;
+        int dy = y1 - y2;
+        return dx*dx+dy*dy;
+    }
+
+    /**
+     * Same as {@link Position#moveTo(Position, int)} for one coordinate.
+     */
+    private static int step(int from, int delta, double length, int units) {
+        return (int) (from + (delta / length) * units);
     }
 }
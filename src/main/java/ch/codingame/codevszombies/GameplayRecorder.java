@@ -1,69 +1,426 @@
 package ch.codingame.codevszombies;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Utility class which allows to record vairous parts of gameplay.
+ *
+ * Positions are stored as differences from the previous position of the same entity in short arrays, because Ash
+ * and zombies move at most {@link GameEngine#ASH_SPEED} units per turn. Differences which don't fit into short
+ * are stored as {@link #ESCAPE} followed by the whole coordinate. Lists of positions are decoded only when asked for,
+ * positions can also be visited one by one without any lists, e.g. {@link #forEachAshPosition(PositionVisitor)}.
  */
 public class GameplayRecorder {
 
-    private final List<Position> ashMovement;
-    private final List<List<Position>> zombiesMovement;
+    /**
+     * Receives decoded positions one by one.
+     * @param <E> Exception the visitor may throw, e.g. {@link IOException} when the positions are written out.
+     */
+    @FunctionalInterface
+    public interface PositionVisitor<E extends Exception> {
+        void visit(int x, int y) throws E;
+    }
+
+    /**
+     * Marks coordinate stored as two shorts (upper and lower 16 bits) instead of difference.
+     */
+    static final short ESCAPE = Short.MIN_VALUE;
+
+    /**
+     * "CVZG" in ASCII.
+     */
+    public static final int MAGIC = 0x43565A47;
+
+    public static final int VERSION = 1;
+
+    private final DeltaBuffer ashMovement;
+    private int ashFrames;
+    private int lastAshX;
+    private int lastAshY;
+
+    /**
+     * For every recorded game state, positions of zombies alive in it ordered by id.
+     */
+    private final DeltaBuffer zombiesMovement;
+    private int zombieStates;
 
-    private final List<Position> remainingHumans;
+    /**
+     * Number of recorded positions of every zombie. Dead zombies never come back to life, so zombie with n positions
+     * was alive in the first n recorded game states. Null until the first game state is recorded.
+     */
+    private int[] zombieFrames;
+    private int[] lastZombieX;
+    private int[] lastZombieY;
+
+    private final DeltaBuffer remainingHumans;
+    private int remainingHumansCount;
+    private int lastHumanX;
+    private int lastHumanY;
 
     public GameplayRecorder() {
-        this.ashMovement = new ArrayList<>();
-        this.zombiesMovement = new ArrayList<>();
-        this.remainingHumans = new ArrayList<>();
+        this.ashMovement = new DeltaBuffer(64);
+        this.zombiesMovement = new DeltaBuffer(256);
+        this.remainingHumans = new DeltaBuffer(16);
     }
 
     public void recordAshMovement(Position position) {
-        ashMovement.add(position);
+        recordAshMovement(position.x(), position.y());
+    }
+
+    private void recordAshMovement(int x, int y) {
+        ashMovement.add(lastAshX, x);
+        ashMovement.add(lastAshY, y);
+        lastAshX = x;
+        lastAshY = y;
+        ashFrames++;
     }
 
+    /**
+     * Positions of Ash. The list is decoded on every call.
+     */
     public List<Position> getAshMovement() {
-        return ashMovement;
+        List<Position> movement = new ArrayList<>(ashFrames);
+        forEachAshPosition((x, y) -> movement.add(new Position(x, y)));
+        return movement;
+    }
+
+    /**
+     * Visit positions of Ash in the order they were recorded.
+     */
+    public <E extends Exception> void forEachAshPosition(PositionVisitor<E> visitor) throws E {
+        DeltaReader reader = new DeltaReader(ashMovement);
+        int x = 0;
+        int y = 0;
+        for (int frame = 0; frame < ashFrames; frame++) {
+            x = reader.next(x);
+            y = reader.next(y);
+            visitor.visit(x, y);
+        }
     }
 
+    /**
+     * Positions of every zombie ordered by id, each zombie has positions until it died. The lists are decoded
+     * on every call.
+     */
     public List<List<Position>> getZombiesMovement() {
-        return zombiesMovement;
+        if (zombieFrames == null) {
+            return new ArrayList<>();
+        }
+
+        List<List<Position>> movement = new ArrayList<>(zombieFrames.length);
+        for (int frames : zombieFrames) {
+            movement.add(new ArrayList<>(frames));
+        }
+
+        DeltaReader reader = new DeltaReader(zombiesMovement);
+        int[] x = new int[zombieFrames.length];
+        int[] y = new int[zombieFrames.length];
+        for (int state = 0; state < zombieStates; state++) {
+            for (int zombieId = 0; zombieId < zombieFrames.length; zombieId++) {
+                if (zombieFrames[zombieId] > state) {
+                    x[zombieId] = reader.next(x[zombieId]);
+                    y[zombieId] = reader.next(y[zombieId]);
+                    movement.get(zombieId).add(new Position(x[zombieId], y[zombieId]));
+                }
+            }
+        }
+        return movement;
     }
 
+    /**
+     * Visit positions of the zombie in the order they were recorded, i.e. the positions of
+     * {@link #getZombiesMovement()}.get(zombieId). Positions of other zombies recorded before its death are skipped,
+     * so visiting all zombies this way is slower than decoding them at once, but nothing is allocated.
+     */
+    public <E extends Exception> void forEachZombiePosition(int zombieId, PositionVisitor<E> visitor) throws E {
+        if (zombieFrames == null) {
+            return;
+        }
+
+        DeltaReader reader = new DeltaReader(zombiesMovement);
+        int x = 0;
+        int y = 0;
+        for (int state = 0; state < zombieFrames[zombieId]; state++) {
+            for (int id = 0; id < zombieFrames.length; id++) {
+                if (zombieFrames[id] <= state) {
+                    continue;
+                }
+                if (id == zombieId) {
+                    x = reader.next(x);
+                    y = reader.next(y);
+                    visitor.visit(x, y);
+                } else {
+                    reader.skip();
+                    reader.skip();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Number of zombies in the recorded game, dead ones included.
+     */
+    public int getZombieCount() {
+        return zombieFrames == null ? 0 : zombieFrames.length;
+    }
+
+    /**
+     * @return Number of recorded positions of the zombie, i.e. number of recorded game states in which it was alive.
+     */
+    public int getZombieFrames(int zombieId) {
+        return zombieFrames == null ? 0 : zombieFrames[zombieId];
+    }
+
+    /**
+     * Humans alive at the end of the game. The list is decoded on every call.
+     */
     public List<Position> getRemainingHumans() {
-        return remainingHumans;
+        List<Position> humans = new ArrayList<>(remainingHumansCount);
+        forEachRemainingHuman((x, y) -> humans.add(new Position(x, y)));
+        return humans;
+    }
+
+    /**
+     * Visit positions of humans alive at the end of the game.
+     */
+    public <E extends Exception> void forEachRemainingHuman(PositionVisitor<E> visitor) throws E {
+        DeltaReader reader = new DeltaReader(remainingHumans);
+        int x = 0;
+        int y = 0;
+        for (int i = 0; i < remainingHumansCount; i++) {
+            x = reader.next(x);
+            y = reader.next(y);
+            visitor.visit(x, y);
+        }
     }
 
     public void recordGameState(GameState gameState) {
-        recordAshMovement(gameState.getAsh());
-        recordZombiesMovement(gameState.getZombies());
+        recordAshMovement(gameState.getAshX(), gameState.getAshY());
+        recordZombiesMovement(gameState);
     }
 
+    /**
+     * Record humans alive at the end of the game. Buffers are trimmed afterwards, since nothing else is usually recorded.
+     */
     public void recordRemainingHumans(GameState gameState) {
-        remainingHumans.addAll(gameState.getHumans());
+        for (int humanId = 0; humanId < gameState.humanCount(); humanId++) {
+            if (gameState.isHumanAlive(humanId)) {
+                remainingHumans.add(lastHumanX, gameState.getHumanX(humanId));
+                remainingHumans.add(lastHumanY, gameState.getHumanY(humanId));
+                lastHumanX = gameState.getHumanX(humanId);
+                lastHumanY = gameState.getHumanY(humanId);
+                remainingHumansCount++;
+            }
+        }
+        ashMovement.trim();
+        zombiesMovement.trim();
+        remainingHumans.trim();
     }
 
-    private void recordZombiesMovement(List<Position> zombies) {
-        if (zombiesMovement.isEmpty()) {
+    private void recordZombiesMovement(GameState gameState) {
+        if (zombieFrames == null) {
             // no recorded moves yet
-            for (Position zombie : zombies) {
-                List<Position> zombieMovement = new ArrayList<>();
-                zombiesMovement.add(zombieMovement);
+            zombieFrames = new int[gameState.zombieCount()];
+            lastZombieX = new int[gameState.zombieCount()];
+            lastZombieY = new int[gameState.zombieCount()];
+        }
 
-                if (zombie != null) {
-                    zombieMovement.add(zombie);
-                }
+        for (int zombieId = 0; zombieId < zombieFrames.length; zombieId++) {
+            if (!gameState.isZombieAlive(zombieId)) {
+                continue;
             }
-        } else {
-            // add new moves to existing ones
-            for (int zombieId = 0; zombieId < zombies.size(); zombieId++) {
-                Position zombie = zombies.get(zombieId);
-                if (zombie == null) {
-                    continue;
-                }
-                zombiesMovement.get(zombieId).add(zombies.get(zombieId));
+            if (zombieFrames[zombieId] != zombieStates) {
+                throw new IllegalStateException("Zombie " + zombieId + " is alive, but it was dead in previous game state.");
+            }
+            int x = gameState.getZombieX(zombieId);
+            int y = gameState.getZombieY(zombieId);
+            zombiesMovement.add(lastZombieX[zombieId], x);
+            zombiesMovement.add(lastZombieY[zombieId], y);
+            lastZombieX[zombieId] = x;
+            lastZombieY[zombieId] = y;
+            zombieFrames[zombieId]++;
+        }
+        zombieStates++;
+    }
+
+    /**
+     * Write the recording in binary format, which is read by {@link #readFrom(DataInput)}.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        out.writeInt(ashFrames);
+        out.writeInt(lastAshX);
+        out.writeInt(lastAshY);
+        ashMovement.writeTo(out);
+
+        out.writeInt(zombieStates);
+        int zombieCount = zombieFrames == null ? -1 : zombieFrames.length;
+        out.writeInt(zombieCount);
+        for (int zombieId = 0; zombieId < zombieCount; zombieId++) {
+            out.writeInt(zombieFrames[zombieId]);
+            out.writeInt(lastZombieX[zombieId]);
+            out.writeInt(lastZombieY[zombieId]);
+        }
+        zombiesMovement.writeTo(out);
+
+        out.writeInt(remainingHumansCount);
+        out.writeInt(lastHumanX);
+        out.writeInt(lastHumanY);
+        remainingHumans.writeTo(out);
+    }
+
+    /**
+     * Read recording written by {@link #writeTo(DataOutput)}. Recording can continue afterwards.
+     * @throws IOException If the input can't be read or it's not a recording of this version.
+     */
+    public static GameplayRecorder readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a gameplay recording.");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported gameplay recording version " + version + ".");
+        }
+
+        GameplayRecorder recorder = new GameplayRecorder();
+        recorder.ashFrames = in.readInt();
+        recorder.lastAshX = in.readInt();
+        recorder.lastAshY = in.readInt();
+        recorder.ashMovement.readFrom(in);
+
+        recorder.zombieStates = in.readInt();
+        int zombieCount = in.readInt();
+        if (zombieCount >= 0) {
+            recorder.zombieFrames = new int[zombieCount];
+            recorder.lastZombieX = new int[zombieCount];
+            recorder.lastZombieY = new int[zombieCount];
+            for (int zombieId = 0; zombieId < zombieCount; zombieId++) {
+                recorder.zombieFrames[zombieId] = in.readInt();
+                recorder.lastZombieX[zombieId] = in.readInt();
+                recorder.lastZombieY[zombieId] = in.readInt();
+            }
+        }
+        recorder.zombiesMovement.readFrom(in);
+
+        recorder.remainingHumansCount = in.readInt();
+        recorder.lastHumanX = in.readInt();
+        recorder.lastHumanY = in.readInt();
+        recorder.remainingHumans.readFrom(in);
+        return recorder;
+    }
+
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            writeTo(out);
+        }
+    }
+
+    public static GameplayRecorder load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return readFrom(in);
+        }
+    }
+
+    /**
+     * Growable array of coordinates stored as differences.
+     */
+    private static final class DeltaBuffer {
+
+        private short[] data;
+        private int size;
+
+        DeltaBuffer(int capacity) {
+            this.data = new short[capacity];
+        }
+
+        /**
+         * @param previous Previous value of the coordinate, 0 for the first one.
+         * @param value Coordinate to store.
+         */
+        void add(int previous, int value) {
+            int delta = value - previous;
+            if (delta > ESCAPE && delta <= Short.MAX_VALUE) {
+                append((short) delta);
+            } else {
+                append(ESCAPE);
+                append((short) (value >>> 16));
+                append((short) value);
+            }
+        }
+
+        private void append(short value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, Math.max(16, size * 2));
+            }
+            data[size++] = value;
+        }
+
+        void trim() {
+            if (size < data.length) {
+                data = Arrays.copyOf(data, size);
+            }
+        }
+
+        void writeTo(DataOutput out) throws IOException {
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeShort(data[i]);
+            }
+        }
+
+        void readFrom(DataInput in) throws IOException {
+            size = in.readInt();
+            if (size < 0) {
+                throw new IOException("Invalid size of gameplay recording " + size + ".");
+            }
+            data = new short[size];
+            for (int i = 0; i < size; i++) {
+                data[i] = in.readShort();
+            }
+        }
+    }
+
+    /**
+     * Decodes coordinates of {@link DeltaBuffer} in the order they were added.
+     */
+    private static final class DeltaReader {
+
+        private final short[] data;
+        private int position;
+
+        DeltaReader(DeltaBuffer buffer) {
+            this.data = buffer.data;
+        }
+
+        int next(int previous) {
+            short delta = data[position++];
+            if (delta != ESCAPE) {
+                return previous + delta;
+            }
+            int upper = data[position++];
+            int lower = data[position++] & 0xFFFF;
+            return (upper << 16) | lower;
+        }
+
+        /**
+         * Move past the next coordinate without decoding it.
+         */
+        void skip() {
+            if (data[position++] == ESCAPE) {
+                position += 2;
             }
         }
     }
@@ -0,0 +1,160 @@
+package ch.codingame.codevszombies;
+
+/**
+ * Uniform grid over human positions. Humans never move, so the grid is built once per scenario
+ * and shared by all copies of the game state. Eaten humans stay in the grid and are skipped by queries.
+ *
+ * Coordinates outside of the map are clamped to the border cells.
+ */
+final class HumanGrid {
+
+    /**
+     * Cells smaller than this would mostly be empty even for scenarios with hundreds of humans.
+     */
+    private static final int MIN_CELL_SIZE = 500;
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+
+    /**
+     * Humans in cell c are cellHumans[cellStart[c]] ... cellHumans[cellStart[c+1] - 1], ordered by id.
+     */
+    private final int[] cellStart;
+    private final int[] cellHumans;
+
+    private final int[] humanX;
+    private final int[] humanY;
+
+    /**
+     * @param humanX X coordinates of humans ordered by id.
+     * @param humanY Y coordinates of humans ordered by id.
+     * @param width Width of the map.
+     * @param height Height of the map.
+     */
+    HumanGrid(int[] humanX, int[] humanY, int width, int height) {
+        this.humanX = humanX;
+        this.humanY = humanY;
+
+        // aim for about one human per cell
+        this.cellSize = Math.max(MIN_CELL_SIZE, (int) Math.sqrt((double) width * height / Math.max(1, humanX.length)));
+        this.columns = width / cellSize + 1;
+        this.rows = height / cellSize + 1;
+
+        // counting sort of humans by cell
+        this.cellStart = new int[columns * rows + 1];
+        for (int humanId = 0; humanId < humanX.length; humanId++) {
+            cellStart[cellOf(humanX[humanId], humanY[humanId]) + 1]++;
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        this.cellHumans = new int[humanX.length];
+        int[] cellFill = new int[columns * rows];
+        for (int humanId = 0; humanId < humanX.length; humanId++) {
+            int cell = cellOf(humanX[humanId], humanY[humanId]);
+            cellHumans[cellStart[cell] + cellFill[cell]++] = humanId;
+        }
+    }
+
+    /**
+     * Find the closest alive human to given point which is closer than the given distance. If more humans
+     * are equally close, the one with the lowest id is returned, same as when scanning humans one by one.
+     *
+     * @param x X coordinate of the point.
+     * @param y Y coordinate of the point.
+     * @param maxSquareDistance Humans have to be strictly closer than this (e.g. square distance to Ash).
+     * @param alive Alive flags of humans ordered by id.
+     * @return Id of the closest human or -1 if there's no alive human closer than maxSquareDistance.
+     */
+    int findClosest(int x, int y, int maxSquareDistance, boolean[] alive) {
+        final int column = column(x);
+        final int row = row(y);
+        final int maxRing = Math.max(columns, rows);
+
+        int closest = -1;
+        int closestDistance = maxSquareDistance;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // cells in the ring are at least (ring - 1) cells away from the point
+            long minDistance = (long) Math.max(0, ring - 1) * cellSize;
+            if (minDistance * minDistance > closestDistance) {
+                break;
+            }
+
+            for (int r = row - ring; r <= row + ring; r++) {
+                if (r < 0 || r >= rows) {
+                    continue;
+                }
+                // first and last row of the ring are scanned whole, other rows only at the ring's edges
+                int step = (r == row - ring || r == row + ring) ? 1 : Math.max(1, 2 * ring);
+                for (int c = column - ring; c <= column + ring; c += step) {
+                    if (c < 0 || c >= columns) {
+                        continue;
+                    }
+                    int cell = r * columns + c;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        int humanId = cellHumans[i];
+                        if (!alive[humanId]) {
+                            continue;
+                        }
+                        int dx = humanX[humanId] - x;
+                        int dy = humanY[humanId] - y;
+                        int distance = dx * dx + dy * dy;
+                        if (distance < closestDistance || (distance == closestDistance && closest != -1 && humanId < closest)) {
+                            closest = humanId;
+                            closestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+
+        return closest;
+    }
+
+    /**
+     * Mark alive humans which are strictly closer than range to given point.
+     *
+     * @param x X coordinate of the point.
+     * @param y Y coordinate of the point.
+     * @param range Range around the point.
+     * @param alive Alive flags of humans ordered by id.
+     * @param marks Marks of humans ordered by id, marked humans are set to mark.
+     * @param mark Value to mark humans with.
+     * @return True if any human was marked.
+     */
+    boolean markWithin(int x, int y, int range, boolean[] alive, int[] marks, int mark) {
+        boolean anyMarked = false;
+        int fromColumn = column(x - range);
+        int toColumn = column(x + range);
+        int toRow = row(y + range);
+        for (int r = row(y - range); r <= toRow; r++) {
+            for (int c = fromColumn; c <= toColumn; c++) {
+                int cell = r * columns + c;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int humanId = cellHumans[i];
+                    int dx = humanX[humanId] - x;
+                    int dy = humanY[humanId] - y;
+                    if (alive[humanId] && dx * dx + dy * dy < range * range) {
+                        marks[humanId] = mark;
+                        anyMarked = true;
+                    }
+                }
+            }
+        }
+        return anyMarked;
+    }
+
+    private int cellOf(int x, int y) {
+        return row(y) * columns + column(x);
+    }
+
+    private int column(int x) {
+        return Math.min(columns - 1, Math.max(0, x / cellSize));
+    }
+
+    private int row(int y) {
+        return Math.min(rows - 1, Math.max(0, y / cellSize));
+    }
+}
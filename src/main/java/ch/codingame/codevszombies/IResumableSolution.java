@@ -0,0 +1,31 @@
+package ch.codingame.codevszombies;
+
+/**
+ * Solution whose first moves may be the same as moves of other, already played solution (e.g. its parent
+ * in genetic algorithm). {@link GameEngine} then resumes its game from checkpoints of the other game
+ * instead of playing it from the beginning. Recorded games are always played from the beginning.
+ */
+public interface IResumableSolution extends ISolution {
+
+    /**
+     * Checkpoints to be filled while the game of this solution is played. Null if they should not be stored.
+     */
+    GameCheckpoints getCheckpoints();
+
+    /**
+     * Checkpoints of the game of the other solution. Null if there's none, game is then played from the beginning.
+     */
+    GameCheckpoints getResumeCheckpoints();
+
+    /**
+     * Index of the first move which differs from moves of the other solution.
+     */
+    int getFirstChangedMove();
+
+    /**
+     * Skip moves as if they were already played. Called after {@link #init()}.
+     *
+     * @param count Number of moves to skip.
+     */
+    void skipMoves(int count);
+}
@@ -3,6 +3,14 @@ public interface ISolution {
 
     String getNextMove();
 
+    /**
+     * Next move packed by {@link Position#pack(int, int)}. This is what {@link GameEngine} uses. By default
+     * {@link #getNextMove()} is parsed, solutions which don't work with strings should override this method.
+     */
+    default long getNextMovePacked() {
+        return Position.parsePacked(getNextMove());
+    }
+
     default void init() {};
 
     default boolean hasNextMove() {
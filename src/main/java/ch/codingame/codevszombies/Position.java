@@ -26,6 +26,32 @@ public record Position(int x, int y) {
         return new Position((int)(x * sx), (int)(y * sy));
     }
 
+    /**
+     * Pack coordinates into single long: x in the upper 32 bits, y in the lower 32 bits.
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    public static int unpackY(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Parse move in the "x y" format and pack it by {@link #pack(int, int)}.
+     */
+    public static long parsePacked(String move) {
+        int separator = move.indexOf(' ');
+        return pack(
+                Integer.parseInt(move, 0, separator, 10),
+                Integer.parseInt(move, separator + 1, move.length(), 10)
+        );
+    }
+
     public Position clone() {
         return new Position(x, y);
     }
@@ -0,0 +1,19 @@
+package ch.codingame.codevszombies;
+
+/**
+ * Finalizer of the SplitMix64 generator, used for hashing and for deriving seeds.
+ */
+public final class SplitMix64 {
+
+    private SplitMix64() {
+    }
+
+    /**
+     * Spreads every input bit over the whole result. Bijective, so distinct inputs give distinct results.
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
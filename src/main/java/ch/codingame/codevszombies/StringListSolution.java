@@ -16,6 +16,11 @@ public class StringListSolution implements ISolution {
         this(moves.toArray(new String[0]));
     }
 
+    @Override
+    public void init() {
+        index = 0;
+    }
+
     @Override
     public boolean hasNextMove() {
         return index < moves.length;
@@ -0,0 +1,59 @@
+package ch.codingame.codevszombies;
+
+import java.io.PrintStream;
+
+/**
+ * Prints every game event. Meant for debugging, do not use when evaluating many games.
+ */
+public class TracingGameEventListener implements GameEventListener {
+
+    private final PrintStream out;
+
+    public TracingGameEventListener() {
+        this(System.err);
+    }
+
+    public TracingGameEventListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void turnStarted(int turn) {
+        out.println("Turn " + turn);
+    }
+
+    @Override
+    public void zombieAtHuman(int zombieId, int x, int y) {
+        out.println("Zombie "+zombieId+" is already at the closest human: " + new Position(x, y));
+    }
+
+    @Override
+    public void zombieMovedToHuman(int zombieId, int x, int y) {
+        out.println("Zombie "+zombieId+" is moving to the closest human: " + new Position(x, y));
+    }
+
+    @Override
+    public void ashMoved(int x, int y) {
+        out.println("Ash moved to: " + new Position(x, y));
+    }
+
+    @Override
+    public void zombieKilled(int zombieId, int x, int y) {
+        out.println("Zombie "+zombieId+" killed: " + new Position(x, y));
+    }
+
+    @Override
+    public void humanEaten(int humanId, int x, int y) {
+        out.println("Human eaten: " + new Position(x, y));
+    }
+
+    @Override
+    public void allHumansEaten() {
+        out.println("All humans eaten!");
+    }
+
+    @Override
+    public void noMoreMoves() {
+        out.println("No more moves, game over");
+    }
+}
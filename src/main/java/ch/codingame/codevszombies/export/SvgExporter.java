@@ -3,9 +3,12 @@ package ch.codingame.codevszombies.export;
 import ch.codingame.codevszombies.GameEngine;
 import ch.codingame.codevszombies.GameState;
 import ch.codingame.codevszombies.GameplayRecorder;
-import ch.codingame.codevszombies.Position;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class SvgExporter {
 
@@ -24,87 +27,198 @@ public class SvgExporter {
 
     public static final int ASH_STROKE_WIDTH = 10;
 
+    private static final String STYLE = "<style>\n" +
+            ".heavy {\n" +
+            "      font: bold 40px sans-serif;\n" +
+            "      fill: #000000;\n" +
+            "    }\n" +
+            "</style>\n";
+
+    private static final String DEFS = "<defs>\n" +
+            "    <marker \n" +
+            "      id='head-z' \n" +
+            "      orient=\"auto\" \n" +
+            "      markerWidth='5' \n" +
+            "      markerHeight='10' \n" +
+            "      refX='10' \n" +
+            "      refY='5'\n" +
+            "    >\n" +
+            "      <path d='M0,0 V10 L5,5 Z' fill=\""+ZOMBIE_FILL+"\" />\n" +
+            "    </marker>\n" +
+            "    <marker \n" +
+            "      id='head-a' \n" +
+            "      orient=\"auto\" \n" +
+            "      markerWidth='5' \n" +
+            "      markerHeight='10' \n" +
+            "      refX='10' \n" +
+            "      refY='5'\n" +
+            "    >\n" +
+            "      <path d='M0,0 V10 L5,5 Z' fill=\""+ASH_FILL+"\" />\n" +
+            "    </marker>\n" +
+            "  </defs>";
+
+    /**
+     * Whole document as a string, see {@link #exportToSvg(GameState, GameplayRecorder, int, int, int, int, int, Appendable)}.
+     */
     public static String exportToSvg(GameState initialState, GameplayRecorder gameplay, int width, int height, int desiredWidth, int desiredHeight, int score) {
         StringBuilder sb = new StringBuilder();
+        try {
+            exportToSvg(initialState, gameplay, width, height, desiredWidth, desiredHeight, score, sb);
+        } catch (IOException e) {
+            // StringBuilder doesn't throw
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write the document to the file, it's overwritten if it exists.
+     */
+    public static void exportToSvg(GameState initialState, GameplayRecorder gameplay, int width, int height, int desiredWidth, int desiredHeight, int score, Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            exportToSvg(initialState, gameplay, width, height, desiredWidth, desiredHeight, score, writer);
+        }
+    }
+
+    /**
+     * Write the document element by element, it's never held in memory as a whole. Positions are visited straight
+     * from the recording and numbers are appended digit by digit, so a buffered {@link Writer} is written to without
+     * decoding the gameplay into lists or creating any strings.
+     *
+     * @param out Where to write the document to, it's neither flushed nor closed.
+     */
+    public static void exportToSvg(GameState initialState, GameplayRecorder gameplay, int width, int height, int desiredWidth, int desiredHeight, int score, Appendable out) throws IOException {
+        final SvgWriter svg = new SvgWriter(out);
         final double scaleX = desiredWidth/(double)width;
         final double scaleY = desiredHeight/(double)height;
-        sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(desiredWidth).append("\" height=\"").append(desiredHeight+150).append("\" viewBox=\"0 0").append(desiredWidth).append(" ").append(desiredHeight+150).append("\">\n");
-        sb.append("<style>\n" +
-                ".heavy {\n" +
-                "      font: bold 40px sans-serif;\n" +
-                "      fill: #000000;\n" +
-                "    }\n" +
-                "</style>\n"
-        );
-        sb.append("<defs>\n" +
-                "    <marker \n" +
-                "      id='head-z' \n" +
-                "      orient=\"auto\" \n" +
-                "      markerWidth='5' \n" +
-                "      markerHeight='10' \n" +
-                "      refX='10' \n" +
-                "      refY='5'\n" +
-                "    >\n" +
-                "      <path d='M0,0 V10 L5,5 Z' fill=\""+ZOMBIE_FILL+"\" />\n" +
-                "    </marker>\n" +
-                "    <marker \n" +
-                "      id='head-a' \n" +
-                "      orient=\"auto\" \n" +
-                "      markerWidth='5' \n" +
-                "      markerHeight='10' \n" +
-                "      refX='10' \n" +
-                "      refY='5'\n" +
-                "    >\n" +
-                "      <path d='M0,0 V10 L5,5 Z' fill=\""+ASH_FILL+"\" />\n" +
-                "    </marker>\n" +
-                "  </defs>");
-
-        sb.append("<g transform=\"scale("+scaleX+" "+scaleY+")\">\n");
-        sb.append("<rect width=\"").append(width).append("\" height=\"").append(height).append("\" fill=\""+BG_FILL+"\" stroke=\"#000000\" stroke-width=\"5\"/>\n");
-        // zombies
-        for (int zombieId = 0; zombieId < gameplay.getZombiesMovement().size(); zombieId++) {
-            List<Position> zombieMovement = gameplay.getZombiesMovement().get(zombieId);
-            Position lastPos = null;
-            for (Position zombiePos : zombieMovement) {
-                // zombie's range
-                sb.append("<circle cx=\"").append(zombiePos.x()).append("\" cy=\"").append(zombiePos.y()).append("\" r=\"").append(GameEngine.ZOMBIE_RANGE).append("\" fill=\""+ZOMBIE_FILL+"\" opacity=\"0.1\"/>\n");
-                // zombie
-                sb.append("<circle cx=\"").append(zombiePos.x()).append("\" cy=\"").append(zombiePos.y()).append("\" r=\"").append(ZOMBIE_RAD).append("\" fill=\""+ZOMBIE_FILL+"\" />\n");
-
-                if (lastPos != null && !zombiePos.equals(lastPos)) {
-                    final String d = String.format("M%d,%d L%d,%d", lastPos.x(), lastPos.y(), zombiePos.x(), zombiePos.y());
-                    sb.append("<path marker-end=\"url(#head-z)\" d=\"").append(d).append("\" stroke=\"").append(ZOMBIE_FILL).append("\" stroke-width=\"").append(ASH_STROKE_WIDTH).append("\" />\n");
-                }
+        svg.text("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").number(desiredWidth).text("\" height=\"").number(desiredHeight+150).text("\" viewBox=\"0 0").number(desiredWidth).text(" ").number(desiredHeight+150).text("\">\n");
+        svg.text(STYLE);
+        svg.text(DEFS);
+
+        svg.text("<g transform=\"scale(").text(String.valueOf(scaleX)).text(" ").text(String.valueOf(scaleY)).text(")\">\n");
+        svg.text("<rect width=\"").number(width).text("\" height=\"").number(height).text("\" fill=\"" + BG_FILL + "\" stroke=\"#000000\" stroke-width=\"5\"/>\n");
+        // zombies, positions are decoded one by one straight from the recording
+        for (int zombieId = 0; zombieId < gameplay.getZombieCount(); zombieId++) {
+            svg.startTrace();
+            gameplay.forEachZombiePosition(zombieId, svg::zombie);
+        }
+
+        // ash's movement, initial position is included
+        svg.startTrace();
+        gameplay.forEachAshPosition(svg::ash);
+
+        // humans
+        gameplay.forEachRemainingHuman(svg::human);
+
+        svg.text("</g>\n");
+
+        svg.text("<text x=\"10\" y=\"").text(String.valueOf(height*scaleY + 50)).text("\" class=\"heavy\">Score: ").number(score).text("</text>\n");
+        svg.text("</svg>");
+    }
+
+    /**
+     * Appends text, numbers and entities to the output without formatting.
+     */
+    private static final class SvgWriter {
+
+        private final Appendable out;
+
+        /**
+         * Same as out if it's a writer, writers are given whole arrays of digits instead of single chars.
+         */
+        private final Writer writer;
+
+        private final char[] digits = new char[11];
 
-                lastPos = zombiePos;
+        /**
+         * Previous position of the traced zombie or Ash, movement arrows are drawn from it.
+         */
+        private boolean traced;
+        private int lastX;
+        private int lastY;
+
+        SvgWriter(Appendable out) {
+            this.out = out;
+            this.writer = out instanceof Writer w ? w : null;
+        }
+
+        /**
+         * Start tracing movement of the next zombie or Ash.
+         */
+        void startTrace() {
+            traced = false;
+        }
+
+        void zombie(int x, int y) throws IOException {
+            // zombie's range
+            text("<circle cx=\"").number(x).text("\" cy=\"").number(y).text("\" r=\"").number(GameEngine.ZOMBIE_RANGE).text("\" fill=\"" + ZOMBIE_FILL + "\" opacity=\"0.1\"/>\n");
+            // zombie
+            text("<circle cx=\"").number(x).text("\" cy=\"").number(y).text("\" r=\"").number(ZOMBIE_RAD).text("\" fill=\"" + ZOMBIE_FILL + "\" />\n");
+
+            if (traced && (x != lastX || y != lastY)) {
+                text("<path marker-end=\"url(#head-z)\" d=\"").path(x, y).text("\" stroke=\"" + ZOMBIE_FILL + "\" stroke-width=\"").number(ASH_STROKE_WIDTH).text("\" />\n");
             }
+            trace(x, y);
         }
 
-        // ash's movement, initial position is included
-        Position lastPos = null;
-        for (Position ashPos : gameplay.getAshMovement()) {
+        void ash(int x, int y) throws IOException {
             // ash's range
-            sb.append("<circle cx=\"").append(ashPos.x()).append("\" cy=\"").append(ashPos.y()).append("\" r=\"").append(GameEngine.ASH_RANGE).append("\" stroke=\""+ASH_FILL+"\"").append(" stroke-width=\"").append(ASH_STROKE_WIDTH).append("\" fill=\"none\" opacity=\"0.5\"/>\n");
+            text("<circle cx=\"").number(x).text("\" cy=\"").number(y).text("\" r=\"").number(GameEngine.ASH_RANGE).text("\" stroke=\"" + ASH_FILL + "\" stroke-width=\"").number(ASH_STROKE_WIDTH).text("\" fill=\"none\" opacity=\"0.5\"/>\n");
             // ash
-            sb.append("<circle cx=\"").append(ashPos.x()).append("\" cy=\"").append(ashPos.y()).append("\" r=\"").append(ASH_RAD).append("\" fill=\""+ASH_FILL+"\" />\n");
+            text("<circle cx=\"").number(x).text("\" cy=\"").number(y).text("\" r=\"").number(ASH_RAD).text("\" fill=\"" + ASH_FILL + "\" />\n");
 
-            if (lastPos != null) {
-                final String d = String.format("M%d,%d L%d,%d", lastPos.x(), lastPos.y(), ashPos.x(), ashPos.y());
-                sb.append("<path marker-end=\"url(#head-a)\" d=\"").append(d).append("\" stroke=\"").append(ASH_FILL).append("\" stroke-width=\"").append(ASH_STROKE_WIDTH).append("\" />\n");
+            if (traced) {
+                text("<path marker-end=\"url(#head-a)\" d=\"").path(x, y).text("\" stroke=\"" + ASH_FILL + "\" stroke-width=\"").number(ASH_STROKE_WIDTH).text("\" />\n");
             }
+            trace(x, y);
+        }
 
-            lastPos = ashPos;
+        void human(int x, int y) throws IOException {
+            text("<circle cx=\"").number(x).text("\" cy=\"").number(y).text("\" r=\"").number(HUMAN_RAD).text("\" fill=\"" + HUMAN_FILL + "\" />\n");
         }
 
-        // humans
-        for (Position human : gameplay.getRemainingHumans()) {
-            sb.append("<circle cx=\"").append(human.x()).append("\" cy=\"").append(human.y()).append("\" r=\"").append(HUMAN_RAD).append("\" fill=\""+HUMAN_FILL+"\" />\n");
+        private void trace(int x, int y) {
+            traced = true;
+            lastX = x;
+            lastY = y;
+        }
+
+        SvgWriter text(String text) throws IOException {
+            out.append(text);
+            return this;
         }
 
-        sb.append("</g>\n");
+        SvgWriter number(int number) throws IOException {
+            if (number == Integer.MIN_VALUE) {
+                return text(String.valueOf(number));
+            }
 
-        sb.append("<text x=\"10\" y=\""+(height*scaleY + 50)+"\" class=\"heavy\">Score: ").append(score).append("</text>\n");
-        sb.append("</svg>");
-        return sb.toString();
+            // digits are filled from the end
+            int position = digits.length;
+            int rest = Math.abs(number);
+            do {
+                digits[--position] = (char) ('0' + rest % 10);
+                rest /= 10;
+            } while (rest > 0);
+            if (number < 0) {
+                digits[--position] = '-';
+            }
+
+            if (writer != null) {
+                writer.write(digits, position, digits.length - position);
+            } else {
+                for (int i = position; i < digits.length; i++) {
+                    out.append(digits[i]);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Line from the previous traced position to the given one: "Mx1,y1 Lx2,y2".
+         */
+        SvgWriter path(int x, int y) throws IOException {
+            return text("M").number(lastX).text(",").number(lastY).text(" L").number(x).text(",").number(y);
+        }
     }
 }
@@ -10,6 +10,43 @@ package ch.codingame.codevszombies.ga;
  *                       For example if set to 10, then the first 10 genes are inherited from parent, the rest is obtained
  *                       by mating.
  * @param matingCoefficient Must be between 0 and 1. Used when mating two genes.
+ * @param seed Seed of the random generator. Runs with the same configuration and seed give the same results.
+ * @param pruneHopeless If true, evaluation of chromosome is stopped as soon as it can't reach the score of the last
+ *                      chromosome selected for mating in the previous generation. If fewer than matingCount chromosomes
+ *                      reach it, the others are evaluated again without stopping, so the same chromosomes are selected
+ *                      for mating and runs with and without pruning give the same results. Chromosomes below the score,
+ *                      stopped or not, are scored {@link ContinuousGenericAlgorithm#PRUNED_SCORE}. Fitness cache keeps
+ *                      the score they fell below, they are played again only in generations with a lower one.
+ * @param incrementalEvaluation If true, per-turn checkpoints of evaluated chromosomes are kept for one generation
+ *                              and children are evaluated from the first gene they differ from their parent in.
+ *                              Pays off with crossoverPoint > 0 and low mutation rate. Not used for generations
+ *                              whose gameplays are recorded.
+ * @param fitnessCacheSize Number of chromosome scores kept in {@link FitnessCache}, chromosomes with cached score are not
+ *                         evaluated again. 0 to disable the cache, at most {@link FitnessCache#MAX_CAPACITY}.
+ *                         Not used for generations whose gameplays are recorded.
  */
-public record AlgorithmConfiguration(int populationSize, int generations, int matingCount, int crossoverPoint, float matingCoefficient, float mutationRate) {
+public record AlgorithmConfiguration(int populationSize, int generations, int matingCount, int crossoverPoint, float matingCoefficient, float mutationRate, long seed, boolean pruneHopeless, boolean incrementalEvaluation, int fitnessCacheSize) {
+
+    /**
+     * Configuration with random seed, without pruning, incremental evaluation and fitness cache.
+     */
+    public AlgorithmConfiguration(int populationSize, int generations, int matingCount, int crossoverPoint, float matingCoefficient, float mutationRate) {
+        this(populationSize, generations, matingCount, crossoverPoint, matingCoefficient, mutationRate, System.nanoTime(), false, false, 0);
+    }
+
+    public AlgorithmConfiguration withSeed(long seed) {
+        return new AlgorithmConfiguration(populationSize, generations, matingCount, crossoverPoint, matingCoefficient, mutationRate, seed, pruneHopeless, incrementalEvaluation, fitnessCacheSize);
+    }
+
+    public AlgorithmConfiguration withPruneHopeless(boolean pruneHopeless) {
+        return new AlgorithmConfiguration(populationSize, generations, matingCount, crossoverPoint, matingCoefficient, mutationRate, seed, pruneHopeless, incrementalEvaluation, fitnessCacheSize);
+    }
+
+    public AlgorithmConfiguration withIncrementalEvaluation(boolean incrementalEvaluation) {
+        return new AlgorithmConfiguration(populationSize, generations, matingCount, crossoverPoint, matingCoefficient, mutationRate, seed, pruneHopeless, incrementalEvaluation, fitnessCacheSize);
+    }
+
+    public AlgorithmConfiguration withFitnessCacheSize(int fitnessCacheSize) {
+        return new AlgorithmConfiguration(populationSize, generations, matingCount, crossoverPoint, matingCoefficient, mutationRate, seed, pruneHopeless, incrementalEvaluation, fitnessCacheSize);
+    }
 }
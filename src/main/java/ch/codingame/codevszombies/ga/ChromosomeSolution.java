@@ -1,41 +1,147 @@
 package ch.codingame.codevszombies.ga;
 
-import ch.codingame.codevszombies.ISolution;
+import ch.codingame.codevszombies.GameCheckpoints;
+import ch.codingame.codevszombies.IResumableSolution;
 import ch.codingame.codevszombies.Position;
 
 /**
- * One chromosome of generic algorithm. String of "x y" is one gene.
+ * One chromosome of generic algorithm. Coordinates "x y" of one move are one gene. Genes are stored in one flat
+ * array as x0, y0, x1, y1, ..., so that breeding can overwrite chromosomes in place.
  */
-public class ChromosomeSolution implements ISolution {
+public class ChromosomeSolution implements IResumableSolution {
 
-        private final Position[] moves;
+        private final int[] genes;
         private int index = 0;
 
+    /**
+     * Genes and checkpoints of the chromosome this one was bred from, its game can be resumed from the parent's
+     * checkpoints. The parent itself isn't referenced, so that chromosomes don't keep chains of their ancestors.
+     */
+    private int[] parentGenes;
+    private GameCheckpoints parentCheckpoints;
+
+    private GameCheckpoints checkpoints;
+
         public ChromosomeSolution(Position... moves) {
-            this.moves = moves;
+            this.genes = new int[moves.length * 2];
+            for (int i = 0; i < moves.length; i++) {
+                genes[i * 2] = moves[i].x();
+                genes[i * 2 + 1] = moves[i].y();
+            }
         }
 
+    /**
+     * @param genes Coordinates of moves as x0, y0, x1, y1, ... The array is used directly, not copied.
+     */
+    public ChromosomeSolution(int[] genes) {
+        this.genes = genes;
+    }
+
     @Override
     public void init() {
         this.index = 0;
     }
 
+    /**
+     * Moves decoded from genes. The array is created on every call.
+     */
     public Position[] getMoves() {
+            Position[] moves = new Position[length()];
+            for (int i = 0; i < moves.length; i++) {
+                moves[i] = getMove(i);
+            }
             return moves;
         }
 
+    public Position getMove(int gene) {
+        return new Position(genes[gene * 2], genes[gene * 2 + 1]);
+    }
+
+    /**
+     * Genes as x0, y0, x1, y1, ... This is the array the chromosome is stored in, not a copy.
+     */
+    public int[] getGenes() {
+        return genes;
+    }
+
+    /**
+     * @return Number of genes, i.e. number of moves.
+     */
+    public int length() {
+        return genes.length / 2;
+    }
+
         @Override
         public String getNextMove() {
-            Position nextMove = index >= moves.length ? moves[moves.length - 1] : moves[index++];
-            return nextMove.x() + " " + nextMove.y();
+            long nextMove = getNextMovePacked();
+            return Position.unpackX(nextMove) + " " + Position.unpackY(nextMove);
         }
 
+    @Override
+    public long getNextMovePacked() {
+        int gene = index >= length() ? length() - 1 : index++;
+        return Position.pack(genes[gene * 2], genes[gene * 2 + 1]);
+    }
+
     public void mutate(int geneIndex, int coordinate, int newValue) {
-        Position geneToMutate = moves[geneIndex];
-        if (coordinate == 0) {
-            moves[geneIndex] = new Position(newValue, geneToMutate.y());
-        } else {
-            moves[geneIndex] = new Position(geneToMutate.x(), newValue);
+        genes[geneIndex * 2 + coordinate] = newValue;
+    }
+
+    /**
+     * Copy genes of the other chromosome of the same length.
+     */
+    public void copyFrom(ChromosomeSolution other) {
+        System.arraycopy(other.genes, 0, genes, 0, genes.length);
+    }
+
+    /**
+     * @return Chromosome with copied genes, without parent and checkpoints.
+     */
+    public ChromosomeSolution copy() {
+        return new ChromosomeSolution(genes.clone());
+    }
+
+    /**
+     * @param parent Chromosome this one was bred from, null to forget it. Its genes and its current checkpoints
+     *               are kept, not the parent itself.
+     */
+    public void setParent(ChromosomeSolution parent) {
+        this.parentGenes = parent != null ? parent.genes : null;
+        this.parentCheckpoints = parent != null ? parent.checkpoints : null;
+    }
+
+    /**
+     * @param checkpoints Checkpoints to be filled when this chromosome is evaluated, null to not store them.
+     */
+    public void setCheckpoints(GameCheckpoints checkpoints) {
+        this.checkpoints = checkpoints;
+    }
+
+    @Override
+    public GameCheckpoints getCheckpoints() {
+        return checkpoints;
+    }
+
+    @Override
+    public GameCheckpoints getResumeCheckpoints() {
+        return parentCheckpoints;
+    }
+
+    /**
+     * Compared gene by gene, so it works no matter if the genes were changed by mating or by mutation.
+     */
+    @Override
+    public int getFirstChangedMove() {
+        int length = Math.min(genes.length, parentGenes.length);
+        int i = 0;
+        while (i < length && genes[i] == parentGenes[i]) {
+            i++;
         }
+        return i / 2;
+    }
+
+    @Override
+    public void skipMoves(int count) {
+        index = Math.min(length(), index + count);
     }
 }
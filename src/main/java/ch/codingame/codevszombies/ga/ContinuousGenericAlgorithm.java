@@ -1,82 +1,483 @@
 package ch.codingame.codevszombies.ga;
 
+import ch.codingame.codevszombies.GameCheckpoints;
 import ch.codingame.codevszombies.GameEngine;
 import ch.codingame.codevszombies.GameState;
 import ch.codingame.codevszombies.GameplayRecorder;
 import ch.codingame.codevszombies.Position;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class ContinuousGenericAlgorithm {
 
+    /**
+     * Deadline of runs which are limited only by the number of generations.
+     */
+    static final long NO_DEADLINE = Long.MIN_VALUE;
+
+    /**
+     * Score of chromosomes below the score threshold when {@link AlgorithmConfiguration#pruneHopeless()} is on.
+     * Their game may have been stopped, so their score is not known. Lower than any score of a played game,
+     * such chromosomes are never selected for mating.
+     */
+    public static final int PRUNED_SCORE = -1;
+
+    /**
+     * Called after every evaluated generation, before the new population is bred from it.
+     */
+    interface GenerationHook {
+
+        /**
+         * @param generation Index of the generation.
+         * @param evaluatedPopulation Evaluated population. Chromosomes may be replaced by other evaluated chromosomes,
+         *                            which are then bred from, but not modified.
+         */
+        void generationEvaluated(int generation, EvaluatedChromosome[] evaluatedPopulation);
+    }
+
     private final int maxX;
     private final int maxY;
 
     private final int chromosomeSize;
 
-    private GameEngine gameEngine;
+    /**
+     * Population is split into parts, each part is always evaluated by the engine with the same index.
+     */
+    private final GameEngine[] gameEngines;
+
+    /**
+     * Executor evaluating parts of population in parallel. Null if population is evaluated on the calling thread.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Random generator used for breeding, reseeded by {@link AlgorithmConfiguration#seed()} at the start of every run.
+     * Breeding is done only by the thread calling {@link #run(AlgorithmConfiguration, GameState, ResultsAggregator)}.
+     */
+    private SplittableRandom random = new SplittableRandom();
+
+    /**
+     * Scores of already evaluated chromosomes, kept between runs. Null if {@link AlgorithmConfiguration#fitnessCacheSize()} is 0.
+     */
+    private FitnessCache fitnessCache;
+
+    /**
+     * Receives the second child of the last mating pair when only one more chromosome fits into the population.
+     */
+    private ChromosomeSolution spareChild;
+
+    /**
+     * Copy of the best chromosome evaluated in the current run.
+     */
+    private ChromosomeSolution bestChromosome;
+    private int bestChromosomeScore;
 
     public ContinuousGenericAlgorithm(int maxX, int maxY, int chromosomeSize) {
+        this(maxX, maxY, chromosomeSize, null, 1);
+    }
+
+    /**
+     * @param executor Executor to evaluate population with, e.g. {@link java.util.concurrent.ForkJoinPool#commonPool()}
+     *                 or a fixed thread pool. Null to evaluate population on the calling thread.
+     * @param parallelism Number of parts the population is split into when evaluated by the executor.
+     *                    Usually the number of threads of the executor.
+     */
+    public ContinuousGenericAlgorithm(int maxX, int maxY, int chromosomeSize, ExecutorService executor, int parallelism) {
         this.maxX = maxX;
         this.maxY = maxY;
         this.chromosomeSize = chromosomeSize;
-        this.gameEngine = new GameEngine();
+        this.executor = executor;
+        this.gameEngines = new GameEngine[executor == null ? 1 : Math.max(1, parallelism)];
+        for (int i = 0; i < gameEngines.length; i++) {
+            gameEngines[i] = new GameEngine();
+        }
     }
 
     public EvaluatedChromosome[] run(AlgorithmConfiguration configuration, GameState initialState, ResultsAggregator aggregator) {
+        return evolve(configuration, initialState, aggregator, NO_DEADLINE, null);
+    }
+
+    public EvaluatedChromosome[] run(AlgorithmConfiguration configuration, GameState initialState) {
+        return run(configuration, initialState, null);
+    }
+
+    /**
+     * Anytime mode: run generations until the deadline would be missed. Time of every generation is measured
+     * and the next generation is only started if it's expected to finish before the deadline. The first generation
+     * is always evaluated, so the deadline may be missed if it's too close.
+     *
+     * @param configuration Algorithm configuration, {@link AlgorithmConfiguration#generations()} is the maximal number
+     *                      of generations, e.g. {@link Integer#MAX_VALUE} to be limited only by the deadline.
+     * @param initialState Initial state of every game.
+     * @param deadlineNanos Value of {@link System#nanoTime()} by which the method returns.
+     * @return Best chromosome of all generations, it's not modified by further runs.
+     */
+    public EvaluatedChromosome runUntil(AlgorithmConfiguration configuration, GameState initialState, long deadlineNanos) {
+        return runWithHook(configuration, initialState, deadlineNanos, null);
+    }
+
+    /**
+     * Same as {@link #runUntil(AlgorithmConfiguration, GameState, long)}, but the hook can modify every evaluated
+     * generation, e.g. exchange chromosomes with other populations.
+     *
+     * @param deadlineNanos Deadline or {@link #NO_DEADLINE}.
+     */
+    EvaluatedChromosome runWithHook(AlgorithmConfiguration configuration, GameState initialState, long deadlineNanos, GenerationHook hook) {
+        evolve(configuration, initialState, null, deadlineNanos, hook);
+        return new EvaluatedChromosome(bestChromosome, bestChromosomeScore);
+    }
+
+    /**
+     * Run generations, stop after {@link AlgorithmConfiguration#generations()} or when the next one would not
+     * finish before the deadline.
+     * @return Last evaluated population.
+     */
+    private EvaluatedChromosome[] evolve(AlgorithmConfiguration configuration, GameState initialState, ResultsAggregator aggregator, long deadlineNanos, GenerationHook hook) {
+        random = new SplittableRandom(configuration.seed());
+        if (configuration.fitnessCacheSize() <= 0) {
+            fitnessCache = null;
+        } else if (fitnessCache == null || fitnessCache.capacity() != configuration.fitnessCacheSize()) {
+            fitnessCache = new FitnessCache(configuration.fitnessCacheSize());
+        }
+        long scenarioHash = fitnessCache != null ? FitnessCache.scenarioHash(initialState) : 0;
+
         // generate initial population
         //ChromosomeSolution[] population = generateInitialPopulation(configuration.populationSize());
         ChromosomeSolution[] population = generateStarInitialPopulation(configuration.populationSize(), initialState.getAsh());
 
+        // new population is bred into the chromosomes of the population before the evaluated one
+        ChromosomeSolution[] nextPopulation = allocatePopulation(configuration.populationSize());
+        spareChild = new ChromosomeSolution(new int[chromosomeSize * 2]);
+        bestChromosome = new ChromosomeSolution(new int[chromosomeSize * 2]);
+        bestChromosomeScore = Integer.MIN_VALUE;
+        if (configuration.incrementalEvaluation()) {
+            for (int j = 0; j < configuration.populationSize(); j++) {
+                population[j].setCheckpoints(new GameCheckpoints(chromosomeSize));
+                nextPopulation[j].setCheckpoints(new GameCheckpoints(chromosomeSize));
+            }
+        }
+
         EvaluatedChromosome[] evaluatedPopulation = new EvaluatedChromosome[configuration.populationSize()];
+        int[] scores = new int[configuration.populationSize()];
+        // score of the last chromosome selected for mating in the previous generation
+        int pruneThreshold = Integer.MIN_VALUE;
+        long generationStart = System.nanoTime();
+        long longestGeneration = 0;
         for (int i = 0; i < configuration.generations(); i++) {
 
-            // for each generation, evaluate population
-            GameplayRecorder[] gameplays = new GameplayRecorder[configuration.populationSize()];
+            // for each generation, evaluate population, gameplays are only needed by the aggregator
+            // and unless all of them are needed, they are recorded by replaying chromosomes after evaluation
+            RecordPolicy recordPolicy = aggregator != null ? aggregator.getRecordPolicy() : RecordPolicy.NONE;
+            GameplayRecorder[] gameplays = recordPolicy.recordsAll(configuration.populationSize()) ? new GameplayRecorder[configuration.populationSize()] : null;
+            int scoreThreshold = configuration.pruneHopeless() ? pruneThreshold : Integer.MIN_VALUE;
+            boolean cached = fitnessCache != null && gameplays == null;
+            if (cached) {
+                evaluatePopulationCached(initialState, scenarioHash, population, configuration.populationSize(), scores, scoreThreshold);
+            } else {
+                evaluatePopulation(initialState, population, configuration.populationSize(), scores, gameplays, scoreThreshold);
+            }
+            if (scoreThreshold != Integer.MIN_VALUE && countAtLeast(scores, scoreThreshold) < configuration.matingCount()) {
+                // chromosomes below the threshold would be selected for mating, so their scores are needed
+                evaluateBelowThreshold(initialState, scenarioHash, population, scores, gameplays, scoreThreshold, cached);
+                scoreThreshold = Integer.MIN_VALUE;
+            }
             for (int j = 0; j < configuration.populationSize(); j++) {
-                evaluatedPopulation[j] = new EvaluatedChromosome(population[j], evaluateChromosome(population[j], initialState.clone()));
-                gameplays[j] = gameEngine.getLastGameplayRecord();
+                // whether the game was stopped or finished below the threshold depends on the threshold it was
+                // played with, cached scores may come from a lower one, so all of them are scored the same
+                if (scores[j] < scoreThreshold) {
+                    scores[j] = PRUNED_SCORE;
+                }
+                evaluatedPopulation[j] = new EvaluatedChromosome(population[j], scores[j]);
+                if (scores[j] > bestChromosomeScore) {
+                    bestChromosome.copyFrom(population[j]);
+                    bestChromosomeScore = scores[j];
+                }
+                // parent is going to be overwritten by the next population
+                population[j].setParent(null);
+            }
+            if (configuration.pruneHopeless()) {
+                // at least matingCount scores are not pruned, chromosome which can't reach the last of them
+                // in the next generation would not be selected either, unless the next generation is worse
+                int[] selected = selectNBestIndexes(scores, configuration.matingCount());
+                pruneThreshold = scores[selected[selected.length - 1]];
             }
 
             if (aggregator != null) {
+                if (gameplays == null && recordPolicy.topCount() > 0) {
+                    gameplays = replayBest(initialState, population, scores, recordPolicy.topCount());
+                }
                 aggregator.addGeneration(evaluatedPopulation, gameplays);
             }
+            if (hook != null) {
+                hook.generationEvaluated(i, evaluatedPopulation);
+            }
+
+            long now = System.nanoTime();
+            longestGeneration = Math.max(longestGeneration, now - generationStart);
+            generationStart = now;
+            if (deadlineNanos != NO_DEADLINE && deadlineNanos - now < longestGeneration) {
+                // next generation would not make it
+                break;
+            }
 
             // based on the evaluation, generate new population
-            population = generateNewPopulation(configuration, evaluatedPopulation);
+            if (i < configuration.generations() - 1) {
+                generateNewPopulation(configuration, evaluatedPopulation, nextPopulation);
+                ChromosomeSolution[] evaluated = population;
+                population = nextPopulation;
+                nextPopulation = evaluated;
+            }
+        }
+
+        // returned chromosomes don't need checkpoints
+        for (int j = 0; j < configuration.populationSize(); j++) {
+            population[j].setCheckpoints(null);
+            nextPopulation[j].setCheckpoints(null);
         }
         return evaluatedPopulation;
     }
 
-    public EvaluatedChromosome[] run(AlgorithmConfiguration configuration, GameState initialState) {
-        return run(configuration, initialState, null);
+    /**
+     * Evaluate first count chromosomes of the population. If there's an executor, population is split into parts
+     * which are evaluated in parallel, each by its own engine.
+     *
+     * @param initialState Initial state of every game.
+     * @param population Population to evaluate.
+     * @param count Number of chromosomes to evaluate.
+     * @param scoresOut Score of population[i] is written to scoresOut[i].
+     * @param gameplaysOut If not null, gameplay of population[i] is recorded to gameplaysOut[i].
+     * @param scoreThreshold Evaluation of chromosome is stopped when it can't reach this score anymore.
+     */
+    void evaluatePopulation(GameState initialState, ChromosomeSolution[] population, int count, int[] scoresOut, GameplayRecorder[] gameplaysOut, int scoreThreshold) {
+        if (gameEngines.length == 1) {
+            gameEngines[0].playGames(initialState, population, scoresOut, gameplaysOut, 0, count, scoreThreshold);
+            return;
+        }
+
+        List<Callable<Void>> parts = new ArrayList<>(gameEngines.length);
+        for (int part = 0; part < gameEngines.length; part++) {
+            final GameEngine engine = gameEngines[part];
+            final int from = (int) ((long) count * part / gameEngines.length);
+            final int to = (int) ((long) count * (part + 1) / gameEngines.length);
+            parts.add(() -> {
+                engine.playGames(initialState, population, scoresOut, gameplaysOut, from, to, scoreThreshold);
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> evaluatedPart : executor.invokeAll(parts)) {
+                evaluatedPart.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Evaluation of population was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Evaluation of population failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Evaluate chromosomes scored below the threshold again, without it, so that all scores are known.
+     * Their gameplays are recorded again if gameplays are not null, their scores are cached if cached is true.
+     */
+    private void evaluateBelowThreshold(GameState initialState, long scenarioHash, ChromosomeSolution[] population, int[] scores, GameplayRecorder[] gameplays, int scoreThreshold, boolean cached) {
+        int count = scores.length - countAtLeast(scores, scoreThreshold);
+        ChromosomeSolution[] below = new ChromosomeSolution[count];
+        int[] belowIndexes = new int[count];
+        for (int i = 0, j = 0; i < scores.length; i++) {
+            if (scores[i] < scoreThreshold) {
+                below[j] = population[i];
+                belowIndexes[j++] = i;
+            }
+        }
+
+        int[] belowScores = new int[count];
+        GameplayRecorder[] belowGameplays = gameplays != null ? new GameplayRecorder[count] : null;
+        evaluatePopulation(initialState, below, count, belowScores, belowGameplays, Integer.MIN_VALUE);
+        for (int i = 0; i < count; i++) {
+            scores[belowIndexes[i]] = belowScores[i];
+            if (gameplays != null) {
+                gameplays[belowIndexes[i]] = belowGameplays[i];
+            }
+            if (cached) {
+                fitnessCache.put(FitnessCache.key(scenarioHash, below[i]), belowScores[i]);
+            }
+        }
+    }
+
+    private static int countAtLeast(int[] scores, int threshold) {
+        int count = 0;
+        for (int score : scores) {
+            if (score >= threshold) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Record gameplays of the best chromosomes of the evaluated population by playing them again.
+     * @return Gameplay of population[i] at index i, null for chromosomes which are not among the best.
+     */
+    private GameplayRecorder[] replayBest(GameState initialState, ChromosomeSolution[] population, int[] scores, int count) {
+        GameplayRecorder[] gameplays = new GameplayRecorder[scores.length];
+        for (int i : selectNBestIndexes(scores, count)) {
+            gameplays[i] = gameEngines[0].replay(initialState, population[i]);
+        }
+        return gameplays;
+    }
+
+    /**
+     * Same as {@link #evaluatePopulation(GameState, ChromosomeSolution[], int, int[], GameplayRecorder[], int)} without
+     * gameplays, but only chromosomes whose score is not in {@link #fitnessCache} are evaluated. Games which may have
+     * been stopped by the score threshold are cached as {@link FitnessCache#putBelow(long, int) below} the threshold,
+     * they are not evaluated again until the threshold is lower, they are scored {@link #PRUNED_SCORE} until then.
+     */
+    private void evaluatePopulationCached(GameState initialState, long scenarioHash, ChromosomeSolution[] population, int count, int[] scoresOut, int scoreThreshold) {
+        long[] keys = new long[count];
+        ChromosomeSolution[] notCached = new ChromosomeSolution[count];
+        int[] notCachedIndexes = new int[count];
+        int notCachedCount = 0;
+        for (int i = 0; i < count; i++) {
+            keys[i] = FitnessCache.key(scenarioHash, population[i]);
+            int score = fitnessCache.get(keys[i]);
+            if (score == FitnessCache.NOT_CACHED || (FitnessCache.isBound(score) && FitnessCache.bound(score) > scoreThreshold)) {
+                notCached[notCachedCount] = population[i];
+                notCachedIndexes[notCachedCount++] = i;
+            } else {
+                scoresOut[i] = FitnessCache.isBound(score) ? PRUNED_SCORE : score;
+                // chromosome is not played, so its checkpoints would be out of date
+                if (population[i].getCheckpoints() != null) {
+                    population[i].getCheckpoints().clear();
+                }
+            }
+        }
+
+        int[] notCachedScores = new int[notCachedCount];
+        evaluatePopulation(initialState, notCached, notCachedCount, notCachedScores, null, scoreThreshold);
+        for (int i = 0; i < notCachedCount; i++) {
+            int index = notCachedIndexes[i];
+            scoresOut[index] = notCachedScores[i];
+            if (notCachedScores[i] >= scoreThreshold) {
+                fitnessCache.put(keys[index], notCachedScores[i]);
+            } else {
+                fitnessCache.putBelow(keys[index], scoreThreshold);
+            }
+        }
+    }
+
+    /**
+     * @return Cache of chromosome scores with hit and miss counts, null if it's disabled in the configuration of the last run.
+     */
+    public FitnessCache getFitnessCache() {
+        return fitnessCache;
     }
 
     /**
      * Select N best chromosome. Bigger score = better chromosome.
      * @param evaluatedPopulation Population to select N best from.
      * @param n Number of best chromosomes to select.
-     * @return Array of N best chromosomes.
+     * @return Array of N best chromosomes ordered from the best one.
      */
     EvaluatedChromosome[] selectNBest(EvaluatedChromosome[] evaluatedPopulation, int n) {
-        return Arrays.stream(evaluatedPopulation)
-                .sorted((o1, o2) -> o2.score() - o1.score())
-                .limit(n)
-                .toArray(EvaluatedChromosome[]::new);
+        int[] scores = new int[evaluatedPopulation.length];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = evaluatedPopulation[i].score();
+        }
+
+        int[] bestIndexes = selectNBestIndexes(scores, n);
+        EvaluatedChromosome[] best = new EvaluatedChromosome[bestIndexes.length];
+        for (int i = 0; i < best.length; i++) {
+            best[i] = evaluatedPopulation[bestIndexes[i]];
+        }
+        return best;
+    }
+
+    /**
+     * Indexes of N best scores ordered from the best one, equal scores are ordered by index. Scores are partitioned
+     * around the N-th best one by quickselect in O(scores.length) on average and only the N best are sorted.
+     * @param scores Scores to select from.
+     * @param n Number of indexes to select.
+     * @return Min(n, scores.length) indexes.
+     */
+    static int[] selectNBestIndexes(int[] scores, int n) {
+        n = Math.min(n, scores.length);
+
+        // ascending order of keys = descending order of scores, then ascending order of indexes
+        long[] keys = new long[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            keys[i] = ((long) ~scores[i] << 32) | i;
+        }
+
+        selectSmallest(keys, n);
+        Arrays.sort(keys, 0, n);
+
+        int[] bestIndexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            bestIndexes[i] = (int) keys[i];
+        }
+        return bestIndexes;
+    }
+
+    /**
+     * Quickselect: reorder distinct keys so that the n smallest ones are at the beginning, in any order.
+     */
+    private static void selectSmallest(long[] keys, int n) {
+        int left = 0;
+        int right = keys.length - 1;
+        while (left < right) {
+            long pivot = keys[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    long tmp = keys[i];
+                    keys[i++] = keys[j];
+                    keys[j--] = tmp;
+                }
+            }
+
+            // keys[left..j] <= pivot <= keys[i..right], continue in the part containing the n-th smallest key
+            if (n - 1 <= j) {
+                right = j;
+            } else if (n - 1 >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
     }
 
     int[][] selectPairsToMate(int matingPopulationCount) {
-        List<Integer> indexes = new ArrayList<>();
+        int[] indexes = new int[matingPopulationCount];
         for (int i = 0; i < matingPopulationCount; i++) {
-            indexes.add(i);
+            indexes[i] = i;
+        }
+
+        // Fisher-Yates shuffle
+        for (int i = matingPopulationCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = tmp;
         }
-        Collections.shuffle(indexes);
 
         int[][] pairs = new int[matingPopulationCount / 2][2];
 
         for (int i = 0; i < matingPopulationCount / 2; i++) {
-            pairs[i][0] = indexes.get(i * 2);
-            pairs[i][1] = indexes.get(i * 2 + 1);
+            pairs[i][0] = indexes[i * 2];
+            pairs[i][1] = indexes[i * 2 + 1];
         }
 
         return pairs;
@@ -99,9 +500,13 @@ public class ContinuousGenericAlgorithm {
         return matingPairs;
     }
 
-    ChromosomeSolution[] generateNewPopulation(AlgorithmConfiguration configuration, EvaluatedChromosome[] evaluatedPopulation) {
-
-        List<ChromosomeSolution> population = new ArrayList<>();
+    /**
+     * Breed new population from the evaluated one.
+     * @param configuration Algorithm configuration.
+     * @param evaluatedPopulation Evaluated population, its chromosomes are not modified.
+     * @param newPopulation Chromosomes to overwrite by the new population.
+     */
+    void generateNewPopulation(AlgorithmConfiguration configuration, EvaluatedChromosome[] evaluatedPopulation, ChromosomeSolution[] newPopulation) {
 
         // select N best chromosomes for mating
         EvaluatedChromosome[] bestChromosomes = selectNBest(evaluatedPopulation, configuration.matingCount());
@@ -111,17 +516,13 @@ public class ContinuousGenericAlgorithm {
         EvaluatedChromosome[][] matingPairs = createPairsToMate(bestChromosomes, pairs);
 
         // mate until the new population is full
-        while(population.size() < configuration.populationSize()) {
-            ChromosomeSolution[] children = mate(configuration, matingPairs);
-            population.addAll(Arrays.asList(children));
+        int populationSize = 0;
+        while(populationSize < newPopulation.length) {
+            populationSize = mate(configuration, matingPairs, newPopulation, populationSize);
         }
 
-        ChromosomeSolution[] populationArray = population.toArray(new ChromosomeSolution[population.size()]);
-
         // mutate
-        mutatePopulation(configuration, populationArray);
-
-        return populationArray;
+        mutatePopulation(configuration, newPopulation);
     }
 
     void mutatePopulation(AlgorithmConfiguration configuration, ChromosomeSolution[] population) {
@@ -138,9 +539,9 @@ public class ContinuousGenericAlgorithm {
 
         // randomly select coordinates in genes in chromosomes to mutate
         for(int i = 0; i < mutationCount; i++) {
-            pi[i] = (int) (Math.random() * population.length);
-            ci[i] = (int) (Math.random() * chromosomeSize);
-            gi[i] = (int) (Math.random() * 2);
+            pi[i] = random.nextInt(population.length);
+            ci[i] = random.nextInt(chromosomeSize);
+            gi[i] = random.nextInt(2);
         }
 
         // mutate
@@ -151,21 +552,25 @@ public class ContinuousGenericAlgorithm {
     }
 
     /**
-     * Mate given pairs of chromosomes.
-     * @param configuration Algorithm configuration, {@link AlgorithmConfiguration#matingCoefficient()} is used.
+     * Mate given pairs of chromosomes, children are written to the population until it's full.
+     * @param configuration Algorithm configuration, {@link AlgorithmConfiguration#matingCoefficient()} and
+     *                      {@link AlgorithmConfiguration#crossoverPoint()} are used.
      * @param matingPairs Array of pairs of chromosomes to mate.
-     * @return Array of children chromosomes.
+     * @param population Population to write children to.
+     * @param from Index of the first child in the population.
+     * @return Index after the last written child.
      */
-    ChromosomeSolution[] mate(AlgorithmConfiguration configuration, EvaluatedChromosome[][] matingPairs) {
-        ChromosomeSolution[] children = new ChromosomeSolution[matingPairs.length*2];
-
-        for (int i = 0; i < matingPairs.length; i++) {
-            ChromosomeSolution[] childrenPair = matingPairs[i][0].mateWith(matingPairs[i][1], configuration.matingCoefficient());
-            children[i*2] = childrenPair[0];
-            children[(i*2) + 1] = childrenPair[1];
+    int mate(AlgorithmConfiguration configuration, EvaluatedChromosome[][] matingPairs, ChromosomeSolution[] population, int from) {
+        int i = from;
+        for (EvaluatedChromosome[] pair : matingPairs) {
+            if (i >= population.length) {
+                break;
+            }
+            ChromosomeSolution secondChild = i + 1 < population.length ? population[i + 1] : spareChild;
+            pair[0].mateInto(pair[1], configuration.matingCoefficient(), configuration.crossoverPoint(), population[i], secondChild);
+            i += 2;
         }
-
-        return children;
+        return Math.min(i, population.length);
     }
 
     /**
@@ -184,28 +589,31 @@ public class ContinuousGenericAlgorithm {
     }
 
     private ChromosomeSolution generateStarChromosome(int chromosomeSize, Position ashStart, double angleRad) {
-        Position[] genes = new Position[chromosomeSize];
+        int[] genes = new int[chromosomeSize * 2];
 
         // move in given direction until the border of the map is reached
-        Position lastPos = ashStart;
+        int lastX = ashStart.x();
+        int lastY = ashStart.y();
         for (int i = 0; i < chromosomeSize; i++) {
-            int x = (int) (lastPos.x() + (GameEngine.ASH_SPEED * Math.cos(angleRad)));
-            int y = (int) (lastPos.y() + (GameEngine.ASH_SPEED * Math.sin(angleRad)));
+            int x = (int) (lastX + (GameEngine.ASH_SPEED * Math.cos(angleRad)));
+            int y = (int) (lastY + (GameEngine.ASH_SPEED * Math.sin(angleRad)));
 
             // check constraints
             if (x < 0) {
                 x = 0;
             } else if (x >= maxX) {
-                x = lastPos.x();
+                x = lastX;
             }
             if (y < 0) {
                 y = 0;
             } else if (y >= maxY) {
-                y = lastPos.y();
+                y = lastY;
             }
 
-            genes[i] = new Position(x, y);
-            lastPos = genes[i];
+            genes[i * 2] = x;
+            genes[i * 2 + 1] = y;
+            lastX = x;
+            lastY = y;
         }
         return new ChromosomeSolution(genes);
     }
@@ -218,27 +626,35 @@ public class ContinuousGenericAlgorithm {
         return population;
     }
 
-    private int evaluateChromosome(ChromosomeSolution chromosome, GameState initialState) {
-        return gameEngine.playGame(initialState, chromosome, true);
+    /**
+     * Population of chromosomes with all genes set to 0, to be overwritten by breeding.
+     */
+    private ChromosomeSolution[] allocatePopulation(int populationSize) {
+        ChromosomeSolution[] population = new ChromosomeSolution[populationSize];
+        for (int i = 0; i < populationSize; i++) {
+            population[i] = new ChromosomeSolution(new int[chromosomeSize * 2]);
+        }
+        return population;
     }
 
     private int randomXInRange() {
-        return (int)(Math.random() * maxX);
+        return random.nextInt(maxX);
     }
 
     private int randomYInRange() {
-        return (int)(Math.random() * maxY);
+        return random.nextInt(maxY);
     }
 
     /**
-     * Generate random chromosome. Each gene is a string of "x y" within boundaries of
+     * Generate random chromosome. Each gene is "x y" within boundaries of
      * 0 <= x < maxX and 0 <= y < maxY. Chromosome has chromosomeSize genes.
      * @return Random chromosome.
      */
     private ChromosomeSolution generateRandomChromosome() {
-        Position[] genes = new Position[chromosomeSize];
+        int[] genes = new int[chromosomeSize * 2];
         for (int i = 0; i < chromosomeSize; i++) {
-            genes[i] = new Position(randomXInRange(), randomYInRange());
+            genes[i * 2] = randomXInRange();
+            genes[i * 2 + 1] = randomYInRange();
         }
         return new ChromosomeSolution(genes);
     }
@@ -5,7 +5,7 @@ import ch.codingame.codevszombies.Position;
 public record EvaluatedChromosome(ChromosomeSolution chromosome, int score) {
 
     public Position getNthGene(int n) {
-        return chromosome.getMoves()[n];
+        return chromosome.getMove(n);
     }
 
     /**
@@ -20,24 +20,45 @@ public record EvaluatedChromosome(ChromosomeSolution chromosome, int score) {
      * @return Two child chromosomes.
      */
     public ChromosomeSolution[]     mateWith(EvaluatedChromosome other, float matingCoefficient) {
-        Position[] genes1 = new Position[chromosome.getMoves().length];
-        Position[] genes2 = new Position[chromosome.getMoves().length];
-        for (int i = 0; i < chromosome.getMoves().length; i++) {
-            int p1x = this.getNthGene(i).x();
-            int p2x = other.getNthGene(i).x();
-            int p1y = this.getNthGene(i).y();
-            int p2y = other.getNthGene(i).y();
+        return mateWith(other, matingCoefficient, 0);
+    }
 
-            genes1[i] = new Position(
-                    (int)(p1x - matingCoefficient * (p1x - p2x) ),
-                    (int)(p1y - matingCoefficient * (p1y - p2y) )
-            );
+    /**
+     * Same as {@link #mateWith(EvaluatedChromosome, float)}, but the first genes are inherited: first child
+     * gets them from this chromosome, second child from the other one. Each child remembers the parent
+     * it inherited the genes from.
+     *
+     * @param crossoverPoint Number of inherited genes, see {@link AlgorithmConfiguration#crossoverPoint()}.
+     */
+    public ChromosomeSolution[] mateWith(EvaluatedChromosome other, float matingCoefficient, int crossoverPoint) {
+        ChromosomeSolution child1 = new ChromosomeSolution(new int[chromosome.getGenes().length]);
+        ChromosomeSolution child2 = new ChromosomeSolution(new int[chromosome.getGenes().length]);
+        mateInto(other, matingCoefficient, crossoverPoint, child1, child2);
+        return new ChromosomeSolution[]{ child1, child2 };
+    }
+
+    /**
+     * Same as {@link #mateWith(EvaluatedChromosome, float, int)}, but genes of the children are written to given
+     * chromosomes, nothing is allocated.
+     *
+     * @param child1 Chromosome of the same length to overwrite by the first child, must not be one of the parents.
+     * @param child2 Chromosome of the same length to overwrite by the second child, must not be one of the parents.
+     */
+    public void mateInto(EvaluatedChromosome other, float matingCoefficient, int crossoverPoint, ChromosomeSolution child1, ChromosomeSolution child2) {
+        final int[] p1 = chromosome.getGenes();
+        final int[] p2 = other.chromosome.getGenes();
+        final int[] genes1 = child1.getGenes();
+        final int[] genes2 = child2.getGenes();
 
-            genes2[i] = new Position(
-                    (int)(p2x + matingCoefficient * (p1x - p2x) ),
-                    (int)(p2y + matingCoefficient * (p1y - p2y) )
-            );
+        // x and y are mated the same way
+        final int inherited = Math.min(p1.length, Math.max(0, crossoverPoint) * 2);
+        System.arraycopy(p1, 0, genes1, 0, inherited);
+        System.arraycopy(p2, 0, genes2, 0, inherited);
+        for (int i = inherited; i < p1.length; i++) {
+            genes1[i] = (int)(p1[i] - matingCoefficient * (p1[i] - p2[i]) );
+            genes2[i] = (int)(p2[i] + matingCoefficient * (p1[i] - p2[i]) );
         }
-        return new ChromosomeSolution[]{ new ChromosomeSolution(genes1), new ChromosomeSolution(genes2) };
+        child1.setParent(chromosome);
+        child2.setParent(other.chromosome);
     }
 }
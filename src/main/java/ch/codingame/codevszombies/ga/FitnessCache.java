@@ -0,0 +1,211 @@
+package ch.codingame.codevszombies.ga;
+
+import ch.codingame.codevszombies.GameState;
+import ch.codingame.codevszombies.Position;
+import ch.codingame.codevszombies.SplitMix64;
+
+/**
+ * Bounded cache of chromosome scores with CLOCK eviction. Chromosome is identified by a 64-bit hash of its genes
+ * combined with a hash of the scenario, see {@link #key(long, ChromosomeSolution)}, so one cache can be used
+ * for runs on different scenarios. Hash collisions are not resolved, with 64 bits they are rare enough to be ignored.
+ *
+ * Entries are kept in parallel primitive arrays indexed by an open addressing table. Not thread safe.
+ */
+public class FitnessCache {
+
+    /**
+     * Returned by {@link #get(long)} when the score is not cached. Real scores are never negative.
+     */
+    public static final int NOT_CACHED = Integer.MIN_VALUE;
+
+    private final long[] keys;
+    private final int[] scores;
+
+    /**
+     * Set when the entry is read, cleared by the clock hand. Entries which are not referenced are evicted.
+     */
+    private final boolean[] referenced;
+    private int size;
+    private int hand;
+
+    /**
+     * Open addressing table with linear probing, contains index of entry + 1 or 0 for empty slot.
+     */
+    private final int[] table;
+    private final int tableMask;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Largest capacity, its table has 2^30 slots, which is the largest power of two an array can have.
+     */
+    public static final int MAX_CAPACITY = 1 << 28;
+
+    /**
+     * @param capacity Maximum number of cached scores, between 1 and {@link #MAX_CAPACITY}.
+     */
+    public FitnessCache(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY + ", got " + capacity + ".");
+        }
+        this.keys = new long[capacity];
+        this.scores = new int[capacity];
+        this.referenced = new boolean[capacity];
+        // keep the table at most half full
+        this.table = new int[Integer.highestOneBit(capacity) << 2];
+        this.tableMask = table.length - 1;
+    }
+
+    /**
+     * @return Cached score, bound cached by {@link #putBelow(long, int)} (see {@link #isBound(int)}) or {@link #NOT_CACHED}.
+     */
+    public int get(long key) {
+        int entry = table[findSlot(key)] - 1;
+        if (entry < 0) {
+            misses++;
+            return NOT_CACHED;
+        }
+        hits++;
+        referenced[entry] = true;
+        return scores[entry];
+    }
+
+    /**
+     * Cache the score, if the cache is full, one entry which was not read recently is evicted.
+     */
+    public void put(long key, int score) {
+        int slot = findSlot(key);
+        int entry = table[slot] - 1;
+        if (entry < 0) {
+            if (size < keys.length) {
+                entry = size++;
+            } else {
+                entry = evict();
+                // removing the evicted key could have moved the slot
+                slot = findSlot(key);
+            }
+            keys[entry] = key;
+            referenced[entry] = false;
+            table[slot] = entry + 1;
+        }
+        scores[entry] = score;
+    }
+
+    /**
+     * Cache that the score is lower than the bound, e.g. because its game was stopped by a score threshold.
+     * @param bound Bound of the score, a real score.
+     */
+    public void putBelow(long key, int bound) {
+        put(key, ~bound);
+    }
+
+    /**
+     * @param cached Value returned by {@link #get(long)}.
+     * @return True if the value is a bound cached by {@link #putBelow(long, int)} and not a score.
+     */
+    public static boolean isBound(int cached) {
+        return cached < 0 && cached != NOT_CACHED;
+    }
+
+    /**
+     * @param cached Value returned by {@link #get(long)} for which {@link #isBound(int)} is true.
+     * @return The score is lower than this.
+     */
+    public static int bound(int cached) {
+        return ~cached;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public String toString() {
+        return "FitnessCache{size=" + size + ", hits=" + hits + ", misses=" + misses + "}";
+    }
+
+    /**
+     * Move the clock hand to the first entry which was not referenced and remove it from the table.
+     * @return Index of the free entry.
+     */
+    private int evict() {
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = (hand + 1) % keys.length;
+        }
+        int entry = hand;
+        hand = (hand + 1) % keys.length;
+        removeSlot(findSlot(keys[entry]));
+        return entry;
+    }
+
+    /**
+     * @return Slot containing the key or the empty slot where the key belongs.
+     */
+    private int findSlot(long key) {
+        int slot = (int) key & tableMask;
+        while (table[slot] != 0 && keys[table[slot] - 1] != key) {
+            slot = (slot + 1) & tableMask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empty the slot and shift following entries back, so that every key stays reachable from its home slot.
+     */
+    private void removeSlot(int slot) {
+        table[slot] = 0;
+        for (int next = (slot + 1) & tableMask; table[next] != 0; next = (next + 1) & tableMask) {
+            int home = (int) keys[table[next] - 1] & tableMask;
+            // entry can be moved to the empty slot only if its home isn't cyclically in (slot, next]
+            boolean homeBetween = slot <= next ? (home > slot && home <= next) : (home > slot || home <= next);
+            if (!homeBetween) {
+                table[slot] = table[next];
+                table[next] = 0;
+                slot = next;
+            }
+        }
+    }
+
+    /**
+     * Hash of the initial state of the scenario.
+     */
+    public static long scenarioHash(GameState initialState) {
+        long hash = SplitMix64.mix(Position.pack(initialState.getAsh().x(), initialState.getAsh().y()));
+        for (Position zombie : initialState.getZombies()) {
+            hash = SplitMix64.mix(hash ^ (zombie == null ? -1 : Position.pack(zombie.x(), zombie.y())));
+        }
+        // separate zombies from humans
+        hash = SplitMix64.mix(hash + 1);
+        for (Position human : initialState.getHumans()) {
+            hash = SplitMix64.mix(hash ^ Position.pack(human.x(), human.y()));
+        }
+        return hash;
+    }
+
+    /**
+     * Key of the chromosome played in the scenario.
+     * @param scenarioHash Hash computed by {@link #scenarioHash(GameState)}.
+     */
+    public static long key(long scenarioHash, ChromosomeSolution chromosome) {
+        long hash = scenarioHash;
+        int[] genes = chromosome.getGenes();
+        for (int i = 0; i < genes.length; i += 2) {
+            hash = SplitMix64.mix(hash ^ Position.pack(genes[i], genes[i + 1]));
+        }
+        return hash;
+    }
+}
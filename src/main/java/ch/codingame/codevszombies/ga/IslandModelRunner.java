@@ -0,0 +1,163 @@
+package ch.codingame.codevszombies.ga;
+
+import ch.codingame.codevszombies.GameState;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Island model of the genetic algorithm: several independent populations, each evolved by its own
+ * {@link ContinuousGenericAlgorithm} on its own thread. Islands form a ring and every few generations,
+ * each island sends copies of its best chromosomes to the next one. Migrants are passed through lock-free queues,
+ * so islands never wait for each other. Because of that, results of runs with the same seed may differ.
+ */
+public class IslandModelRunner {
+
+    private final int maxX;
+    private final int maxY;
+    private final int chromosomeSize;
+
+    private final int islandCount;
+
+    /**
+     * Executor running the islands, should have a thread for every island.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * @param islandCount Number of islands (populations), at least 1.
+     * @param executor Executor to run the islands with, e.g. a fixed thread pool with islandCount threads.
+     *                 With fewer threads, some islands only start once others are finished.
+     */
+    public IslandModelRunner(int maxX, int maxY, int chromosomeSize, int islandCount, ExecutorService executor) {
+        if (islandCount < 1) {
+            throw new IllegalArgumentException("Number of islands must be positive, got " + islandCount + ".");
+        }
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.chromosomeSize = chromosomeSize;
+        this.islandCount = islandCount;
+        this.executor = executor;
+    }
+
+    /**
+     * Evolve all islands for {@link AlgorithmConfiguration#generations()}.
+     *
+     * @param configuration Configuration of one island, seed of every island is derived from its seed.
+     * @param initialState Initial state of every game.
+     * @param migrationInterval Number of generations between migrations, at least 1.
+     * @param migrantCount Number of best chromosomes sent to the next island, they replace the worst chromosomes there.
+     *                     0 disables the migration.
+     * @return Best chromosome of all islands.
+     */
+    public EvaluatedChromosome run(AlgorithmConfiguration configuration, GameState initialState, int migrationInterval, int migrantCount) {
+        return runUntil(configuration, initialState, migrationInterval, migrantCount, ContinuousGenericAlgorithm.NO_DEADLINE);
+    }
+
+    /**
+     * Same as {@link #run(AlgorithmConfiguration, GameState, int, int)}, but every island stops before the deadline,
+     * see {@link ContinuousGenericAlgorithm#runUntil(AlgorithmConfiguration, GameState, long)}.
+     *
+     * @param deadlineNanos Value of {@link System#nanoTime()} by which the islands stop.
+     */
+    public EvaluatedChromosome runUntil(AlgorithmConfiguration configuration, GameState initialState, int migrationInterval, int migrantCount, long deadlineNanos) {
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("Migration interval must be positive, got " + migrationInterval + ".");
+        }
+        if (migrantCount < 0) {
+            throw new IllegalArgumentException("Number of migrants must not be negative, got " + migrantCount + ".");
+        }
+        SplittableRandom seeds = new SplittableRandom(configuration.seed());
+        Island[] islands = new Island[islandCount];
+        for (int i = 0; i < islandCount; i++) {
+            islands[i] = new Island(migrationInterval, migrantCount);
+        }
+
+        List<Callable<EvaluatedChromosome>> runs = new ArrayList<>(islandCount);
+        for (int i = 0; i < islandCount; i++) {
+            final Island island = islands[i];
+            final AlgorithmConfiguration islandConfiguration = configuration.withSeed(seeds.nextLong());
+            island.next = islands[(i + 1) % islandCount];
+            runs.add(() -> new ContinuousGenericAlgorithm(maxX, maxY, chromosomeSize)
+                    .runWithHook(islandConfiguration, initialState, deadlineNanos, island));
+        }
+
+        EvaluatedChromosome best = null;
+        try {
+            for (Future<EvaluatedChromosome> islandBest : executor.invokeAll(runs)) {
+                if (best == null || islandBest.get().score() > best.score()) {
+                    best = islandBest.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Evolution of islands was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Evolution of island failed.", e.getCause());
+        }
+        return best;
+    }
+
+    /**
+     * Migration of one island, called by its algorithm after every generation.
+     */
+    static class Island implements ContinuousGenericAlgorithm.GenerationHook {
+
+        private final int migrationInterval;
+        private final int migrantCount;
+
+        /**
+         * Migrants sent to this island by the previous one.
+         */
+        private final ConcurrentLinkedQueue<EvaluatedChromosome> immigrants = new ConcurrentLinkedQueue<>();
+
+        Island next;
+
+        Island(int migrationInterval, int migrantCount) {
+            this.migrationInterval = migrationInterval;
+            this.migrantCount = migrantCount;
+        }
+
+        @Override
+        public void generationEvaluated(int generation, EvaluatedChromosome[] evaluatedPopulation) {
+            if ((generation + 1) % migrationInterval != 0) {
+                return;
+            }
+
+            int[] scores = new int[evaluatedPopulation.length];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = evaluatedPopulation[i].score();
+            }
+            int[] ranking = ContinuousGenericAlgorithm.selectNBestIndexes(scores, scores.length);
+
+            // chromosomes of the population are overwritten by the next generation, so migrants are copies
+            int emigrants = Math.min(migrantCount, ranking.length);
+            for (int i = 0; i < emigrants && next != this; i++) {
+                EvaluatedChromosome emigrant = evaluatedPopulation[ranking[i]];
+                next.immigrants.offer(new EvaluatedChromosome(emigrant.chromosome().copy(), emigrant.score()));
+            }
+
+            // the best immigrants replace the worst chromosomes as long as they are better, the rest is dropped
+            List<EvaluatedChromosome> arrived = new ArrayList<>();
+            for (EvaluatedChromosome immigrant = immigrants.poll(); immigrant != null; immigrant = immigrants.poll()) {
+                arrived.add(immigrant);
+            }
+            arrived.sort(Comparator.comparingInt(EvaluatedChromosome::score).reversed());
+            int replaced = Math.min(Math.min(migrantCount, ranking.length), arrived.size());
+            for (int i = 0; i < replaced; i++) {
+                int worst = ranking[ranking.length - 1 - i];
+                if (arrived.get(i).score() <= evaluatedPopulation[worst].score()) {
+                    break;
+                }
+                evaluatedPopulation[worst] = arrived.get(i);
+            }
+        }
+    }
+}
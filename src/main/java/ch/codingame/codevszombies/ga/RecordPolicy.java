@@ -0,0 +1,37 @@
+package ch.codingame.codevszombies.ga;
+
+/**
+ * Which gameplays of every generation are recorded for {@link ResultsAggregator}. Recording all of them is done
+ * during evaluation, otherwise the chosen chromosomes are replayed with recording after the generation is evaluated,
+ * so the evaluation itself never records.
+ *
+ * @param topCount Number of the best chromosomes of every generation whose gameplay is recorded.
+ */
+public record RecordPolicy(int topCount) {
+
+    public static final RecordPolicy NONE = new RecordPolicy(0);
+
+    /**
+     * Only the best chromosome of every generation.
+     */
+    public static final RecordPolicy BEST = new RecordPolicy(1);
+
+    public static final RecordPolicy ALL = new RecordPolicy(Integer.MAX_VALUE);
+
+    public RecordPolicy {
+        if (topCount < 0) {
+            throw new IllegalArgumentException("Number of recorded gameplays must not be negative, got " + topCount + ".");
+        }
+    }
+
+    /**
+     * @param count Number of the best chromosomes of every generation whose gameplay is recorded.
+     */
+    public static RecordPolicy top(int count) {
+        return new RecordPolicy(count);
+    }
+
+    public boolean recordsAll(int populationSize) {
+        return topCount >= populationSize;
+    }
+}
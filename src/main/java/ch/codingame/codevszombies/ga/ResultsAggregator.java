@@ -1,5 +1,7 @@
 package ch.codingame.codevszombies.ga;
 
+import ch.codingame.codevszombies.GameEngine;
+import ch.codingame.codevszombies.GameState;
 import ch.codingame.codevszombies.GameplayRecorder;
 
 import java.util.ArrayList;
@@ -10,20 +12,57 @@ public class ResultsAggregator {
 
     private final List<EvaluatedGeneration> generations;
     private final List<GameplayRecorder[]> generationGameplays;
+    private final RecordPolicy recordPolicy;
+
+    /**
+     * Aggregator with gameplays of all chromosomes.
+     */
     public ResultsAggregator() {
+        this(RecordPolicy.ALL);
+    }
+
+    /**
+     * @param recordPolicy Gameplays to be recorded by the algorithm, the rest can be replayed by
+     *                     {@link #replay(GameState, int, int)}.
+     */
+    public ResultsAggregator(RecordPolicy recordPolicy) {
         generations = new ArrayList<>();
         generationGameplays = new ArrayList<>();
+        this.recordPolicy = recordPolicy;
+    }
+
+    public RecordPolicy getRecordPolicy() {
+        return recordPolicy;
     }
 
+    /**
+     * @param gameplays Gameplays of chromosomes of the generation, may be null or contain nulls for chromosomes
+     *                  which weren't recorded.
+     */
     public void addGeneration(EvaluatedChromosome[] generation, GameplayRecorder[] gameplays) {
         generations.add(evaluateGeneration(generation));
         generationGameplays.add(gameplays);
     }
 
+    /**
+     * Gameplays of every generation as recorded according to {@link #getRecordPolicy()}. Array of generation is null
+     * if nothing was recorded and it contains nulls for chromosomes which weren't recorded.
+     */
     public List<GameplayRecorder[]> getGenerationGameplays() {
         return generationGameplays;
     }
 
+    /**
+     * Record gameplay of any stored chromosome by playing it again.
+     *
+     * @param initialState Initial state the algorithm was run with.
+     * @param generationId Id of the generation.
+     * @param chromosomeId Id of the chromosome in the generation, e.g. from {@link #getBestIds()}.
+     */
+    public GameplayRecorder replay(GameState initialState, int generationId, int chromosomeId) {
+        return new GameEngine().replay(initialState, generations.get(generationId).generation[chromosomeId].chromosome());
+    }
+
     /**
      * [0] = id of the generation
      * [1] = id of the chromosome in the generation
@@ -86,10 +125,10 @@ public class ResultsAggregator {
         int meanScore = sum / generation.length;
         int averageScore = (bestScore + worstScore) / 2;
 
-        // story copy of the generation
+        // story copy of the generation, chromosomes are overwritten by the algorithm in the next generations
         EvaluatedChromosome[] generationCopy = new EvaluatedChromosome[generation.length];
         for (int i = 0; i < generation.length; i++) {
-            generationCopy[i] = new EvaluatedChromosome(generation[i].chromosome(), generation[i].score());
+            generationCopy[i] = new EvaluatedChromosome(generation[i].chromosome().copy(), generation[i].score());
         }
 
         return new EvaluatedGeneration(generationCopy, bestId, bestScore, worstScore, meanScore, averageScore);
@@ -0,0 +1,178 @@
+package ch.codingame.codevszombies.scenario;
+
+import ch.codingame.codevszombies.GameState;
+import ch.codingame.codevszombies.Position;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Binary file with many scenarios. The file is memory-mapped and scenarios are decoded only when streamed,
+ * nothing is parsed upfront. All numbers are big-endian ints:
+ * <pre>
+ * MAGIC VERSION
+ * ashX ashY humanCount (humanX humanY)* zombieCount (zombieX zombieY)*   (for every scenario)
+ * </pre>
+ * All positions must be on the map of the game, as in {@link ScenarioTextFormat}.
+ */
+public final class ScenarioCorpus {
+
+    /**
+     * "CVZS" in ASCII.
+     */
+    public static final int MAGIC = 0x43565A53;
+
+    public static final int VERSION = 1;
+
+    private final Path file;
+
+    /**
+     * Scenarios after the header.
+     */
+    private final IntBuffer data;
+
+    private ScenarioCorpus(Path file, IntBuffer data) {
+        this.file = file;
+        this.data = data;
+    }
+
+    /**
+     * Memory-map the corpus. The mapping is released when the corpus is garbage collected.
+     * @throws IOException If the file can't be read or it's not a corpus of this version.
+     */
+    public static ScenarioCorpus open(Path file) throws IOException {
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapped.remaining() < 2 * Integer.BYTES || mapped.getInt() != MAGIC) {
+            throw new IOException("Not a scenario corpus: " + file);
+        }
+        int version = mapped.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported scenario corpus version " + version + ": " + file);
+        }
+        return new ScenarioCorpus(file, mapped.slice().asIntBuffer());
+    }
+
+    /**
+     * Write scenarios to the file, it's overwritten if it exists. Only humans and zombies which are alive are written.
+     * @return Number of written scenarios.
+     */
+    public static int write(Path file, Iterable<GameState> scenarios) throws IOException {
+        int count = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (GameState scenario : scenarios) {
+                writeScenario(out, scenario);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lazily decoded scenarios in the order they were written. Every stream reads the corpus from the start.
+     * @throws IllegalStateException If the corpus is truncated or corrupted, e.g. a position is out of the map.
+     */
+    public Stream<GameState> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    public Iterator<GameState> iterator() {
+        final IntBuffer scenarios = data.duplicate();
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return scenarios.hasRemaining();
+            }
+
+            @Override
+            public GameState next() {
+                if (!scenarios.hasRemaining()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return readScenario(scenarios);
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("Corrupted scenario " + index + " of corpus: " + file, e);
+                } finally {
+                    index++;
+                }
+            }
+        };
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private static void writeScenario(DataOutputStream out, GameState scenario) throws IOException {
+        Position ash = scenario.getAsh();
+        out.writeInt(ash.x());
+        out.writeInt(ash.y());
+
+        List<Position> humans = scenario.getHumans();
+        out.writeInt(humans.size());
+        for (Position human : humans) {
+            out.writeInt(human.x());
+            out.writeInt(human.y());
+        }
+
+        List<Position> zombies = scenario.getZombies();
+        zombies.removeIf(zombie -> zombie == null);
+        out.writeInt(zombies.size());
+        for (Position zombie : zombies) {
+            out.writeInt(zombie.x());
+            out.writeInt(zombie.y());
+        }
+    }
+
+    private static GameState readScenario(IntBuffer in) {
+        Position ash = readPosition(in);
+        List<Position> humans = readPositions(in);
+        List<Position> zombies = readPositions(in);
+        return new GameState(zombies, ash, humans);
+    }
+
+    private static List<Position> readPositions(IntBuffer in) {
+        int count = in.get();
+        // count * 2 would overflow for corrupted counts
+        if (count < 0 || count > in.remaining() / 2) {
+            throw new IllegalArgumentException("Invalid number of positions " + count + ".");
+        }
+        List<Position> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            positions.add(readPosition(in));
+        }
+        return positions;
+    }
+
+    private static Position readPosition(IntBuffer in) {
+        int x = in.get();
+        int y = in.get();
+        if (!ScenarioLoader.isOnMap(x, y)) {
+            throw new IllegalArgumentException("Position " + x + " " + y + " out of the map.");
+        }
+        return new Position(x, y);
+    }
+}
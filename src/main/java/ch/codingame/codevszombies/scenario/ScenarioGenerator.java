@@ -0,0 +1,127 @@
+package ch.codingame.codevszombies.scenario;
+
+import ch.codingame.codevszombies.GameEngine;
+import ch.codingame.codevszombies.GameState;
+import ch.codingame.codevszombies.Position;
+import ch.codingame.codevszombies.SplitMix64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates random scenarios. Every scenario is given by the seed and its index only, so the same generator
+ * always produces the same scenarios, in any order.
+ *
+ * @param seed Seed of all scenarios.
+ * @param humanCount Number of humans in every scenario.
+ * @param zombieCount Number of zombies in every scenario.
+ * @param clustering Between 0 and 1. Fraction of humans and zombies placed around cluster centers instead of uniformly
+ *                   over the map. Humans and zombies have their own clusters.
+ * @param clusterCount Number of clusters of humans and number of clusters of zombies.
+ * @param width Width of the map, entities have x in [0, width). At most {@link GameEngine#MAX_X}.
+ * @param height Height of the map, entities have y in [0, height). At most {@link GameEngine#MAX_Y}.
+ */
+public record ScenarioGenerator(long seed, int humanCount, int zombieCount, double clustering, int clusterCount, int width, int height) {
+
+    /**
+     * Standard deviation of distance of clustered entity from the cluster center in both axes.
+     */
+    public static final int CLUSTER_SPREAD = GameEngine.ASH_RANGE / 2;
+
+    public static final int DEFAULT_CLUSTER_COUNT = 3;
+
+    /**
+     * Generator of uniformly placed entities on the map of the game.
+     */
+    public ScenarioGenerator(long seed, int humanCount, int zombieCount) {
+        this(seed, humanCount, zombieCount, 0, DEFAULT_CLUSTER_COUNT, GameEngine.MAX_X, GameEngine.MAX_Y);
+    }
+
+    public ScenarioGenerator {
+        if (humanCount < 1 || zombieCount < 1) {
+            throw new IllegalArgumentException("Scenario needs at least one human and one zombie.");
+        }
+        if (clustering < 0 || clustering > 1) {
+            throw new IllegalArgumentException("Clustering must be between 0 and 1, got " + clustering + ".");
+        }
+        if (clusterCount < 1 || width < 1 || height < 1) {
+            throw new IllegalArgumentException("Cluster count and map size must be positive.");
+        }
+        // game computes squared distances in ints and indexes humans in a grid of the game map,
+        // both are only valid on the map of the game
+        if (width > GameEngine.MAX_X || height > GameEngine.MAX_Y) {
+            throw new IllegalArgumentException("Map size must be at most " + GameEngine.MAX_X + "x" + GameEngine.MAX_Y
+                    + ", got " + width + "x" + height + ".");
+        }
+    }
+
+    public ScenarioGenerator withSeed(long seed) {
+        return new ScenarioGenerator(seed, humanCount, zombieCount, clustering, clusterCount, width, height);
+    }
+
+    public ScenarioGenerator withCounts(int humanCount, int zombieCount) {
+        return new ScenarioGenerator(seed, humanCount, zombieCount, clustering, clusterCount, width, height);
+    }
+
+    public ScenarioGenerator withClustering(double clustering, int clusterCount) {
+        return new ScenarioGenerator(seed, humanCount, zombieCount, clustering, clusterCount, width, height);
+    }
+
+    public ScenarioGenerator withMapSize(int width, int height) {
+        return new ScenarioGenerator(seed, humanCount, zombieCount, clustering, clusterCount, width, height);
+    }
+
+    /**
+     * @param index Index of the scenario, non-negative.
+     */
+    public GameState generate(int index) {
+        // seed + index * gamma of SplittableRandom would just shift the sequence of the previous index, so it's mixed
+        SplittableRandom random = new SplittableRandom(SplitMix64.mix(SplitMix64.mix(seed) + index));
+        Position ash = new Position(random.nextInt(width), random.nextInt(height));
+        List<Position> humans = generatePositions(random, humanCount);
+        List<Position> zombies = generatePositions(random, zombieCount);
+        return new GameState(zombies, ash, humans);
+    }
+
+    /**
+     * Infinite stream of scenarios with index 0, 1, 2, ... Scenarios are generated only when consumed,
+     * use {@link Stream#limit(long)} to get given number of them.
+     */
+    public Stream<GameState> stream() {
+        return IntStream.iterate(0, index -> index + 1).mapToObj(this::generate);
+    }
+
+    private List<Position> generatePositions(SplittableRandom random, int count) {
+        int[] centerX = new int[clusterCount];
+        int[] centerY = new int[clusterCount];
+        for (int i = 0; i < clusterCount; i++) {
+            centerX[i] = random.nextInt(width);
+            centerY[i] = random.nextInt(height);
+        }
+
+        List<Position> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (random.nextDouble() < clustering) {
+                int cluster = random.nextInt(clusterCount);
+                positions.add(new Position(
+                        aroundCenter(random, centerX[cluster], width),
+                        aroundCenter(random, centerY[cluster], height)
+                ));
+            } else {
+                positions.add(new Position(random.nextInt(width), random.nextInt(height)));
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Normally distributed coordinate around the center, clamped to the map.
+     */
+    private static int aroundCenter(SplittableRandom random, int center, int size) {
+        int coordinate = (int) Math.round(center + random.nextGaussian() * CLUSTER_SPREAD);
+        return Math.max(0, Math.min(size - 1, coordinate));
+    }
+}
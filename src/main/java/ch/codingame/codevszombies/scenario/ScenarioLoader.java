@@ -0,0 +1,86 @@
+package ch.codingame.codevszombies.scenario;
+
+import ch.codingame.codevszombies.GameEngine;
+import ch.codingame.codevszombies.GameState;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Loads scenarios from files: text files with one scenario ({@link ScenarioTextFormat}) have extension
+ * {@value #TEXT_EXTENSION}, binary corpora with many scenarios ({@link ScenarioCorpus}) have extension
+ * {@value #CORPUS_EXTENSION}.
+ */
+public final class ScenarioLoader {
+
+    public static final String TEXT_EXTENSION = ".txt";
+
+    public static final String CORPUS_EXTENSION = ".cvzs";
+
+    private ScenarioLoader() {
+    }
+
+    /**
+     * Scenarios are read only with positions on the map of the game, squared distances of other positions may
+     * overflow and the game indexes humans in a grid of the map.
+     */
+    static boolean isOnMap(int x, int y) {
+        return x >= 0 && x <= GameEngine.MAX_X && y >= 0 && y <= GameEngine.MAX_Y;
+    }
+
+    /**
+     * Read one scenario from text file.
+     */
+    public static GameState load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file)) {
+            return ScenarioTextFormat.read(reader);
+        }
+    }
+
+    /**
+     * Save one scenario to text file.
+     */
+    public static void save(GameState scenario, Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            ScenarioTextFormat.write(scenario, writer);
+        }
+    }
+
+    /**
+     * Scenarios of all text files and corpora in the directory (not in subdirectories), files are ordered by name.
+     * Every file is opened only when the stream gets to it, so the stream should be closed to release the directory.
+     * Failures of reading files are thrown as {@link UncheckedIOException}.
+     */
+    public static Stream<GameState> stream(Path directory) throws IOException {
+        Stream<Path> files = Files.list(directory);
+        return files
+                .filter(Files::isRegularFile)
+                .filter(file -> isText(file) || isCorpus(file))
+                .sorted()
+                .flatMap(ScenarioLoader::streamFile);
+    }
+
+    /**
+     * Scenario of text file or scenarios of corpus.
+     */
+    public static Stream<GameState> streamFile(Path file) {
+        try {
+            return isCorpus(file) ? ScenarioCorpus.open(file).stream() : Stream.of(load(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read scenarios from " + file, e);
+        }
+    }
+
+    private static boolean isText(Path file) {
+        return file.getFileName().toString().endsWith(TEXT_EXTENSION);
+    }
+
+    private static boolean isCorpus(Path file) {
+        return file.getFileName().toString().endsWith(CORPUS_EXTENSION);
+    }
+}
@@ -0,0 +1,129 @@
+package ch.codingame.codevszombies.scenario;
+
+import ch.codingame.codevszombies.GameEngine;
+import ch.codingame.codevszombies.GameState;
+import ch.codingame.codevszombies.Position;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scenario as text, same as the first turn input of the coding game:
+ * <pre>
+ * ashX ashY
+ * humanCount
+ * humanId humanX humanY      (humanCount lines)
+ * zombieCount
+ * zombieId zombieX zombieY   (zombieCount lines)
+ * </pre>
+ * Ids are ignored when reading, so are any further numbers on zombie lines (the coding game input has the next
+ * position of zombie there). Blank lines and lines starting with '#' are skipped. All positions must be on the map
+ * of the game, i.e. between 0 0 and {@link GameEngine#MAX_X} {@link GameEngine#MAX_Y}.
+ */
+public final class ScenarioTextFormat {
+
+    private ScenarioTextFormat() {
+    }
+
+    public static GameState read(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+
+        Position ash = readPosition(lines, 2);
+        List<Position> humans = readPositions(lines);
+        List<Position> zombies = readPositions(lines);
+        return new GameState(zombies, ash, humans);
+    }
+
+    /**
+     * Write Ash, humans which are alive and zombies which are alive.
+     */
+    public static void write(GameState gameState, Writer writer) throws IOException {
+        Position ash = gameState.getAsh();
+        writer.write(ash.x() + " " + ash.y() + "\n");
+
+        List<Position> humans = gameState.getHumans();
+        writer.write(humans.size() + "\n");
+        for (int i = 0; i < humans.size(); i++) {
+            writer.write(i + " " + humans.get(i).x() + " " + humans.get(i).y() + "\n");
+        }
+
+        List<Position> zombies = new ArrayList<>(gameState.getZombies());
+        zombies.removeIf(zombie -> zombie == null);
+        writer.write(zombies.size() + "\n");
+        for (int i = 0; i < zombies.size(); i++) {
+            writer.write(i + " " + zombies.get(i).x() + " " + zombies.get(i).y() + "\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Count line followed by "id x y" lines.
+     */
+    private static List<Position> readPositions(BufferedReader lines) throws IOException {
+        int count = readNumbers(lines, 1)[0];
+        if (count < 0) {
+            throw new IOException("Invalid number of positions " + count + ".");
+        }
+        List<Position> positions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            positions.add(readPosition(lines, 3));
+        }
+        return positions;
+    }
+
+    /**
+     * Read the first count numbers of the next line, the last two of them are coordinates of position on the map.
+     */
+    private static Position readPosition(BufferedReader lines, int count) throws IOException {
+        String line = readLine(lines);
+        int[] numbers = parseNumbers(line, count);
+        int x = numbers[count - 2];
+        int y = numbers[count - 1];
+        if (!ScenarioLoader.isOnMap(x, y)) {
+            throw new IOException("Position out of the map, got line '" + line + "'.");
+        }
+        return new Position(x, y);
+    }
+
+    /**
+     * Read the first count numbers of the next line which is not blank nor comment.
+     */
+    private static int[] readNumbers(BufferedReader lines, int count) throws IOException {
+        String line = readLine(lines);
+        return parseNumbers(line, count);
+    }
+
+    /**
+     * @return Next line which is not blank nor comment.
+     */
+    private static String readLine(BufferedReader lines) throws IOException {
+        String line = lines.readLine();
+        while (line != null && (line.isBlank() || line.startsWith("#"))) {
+            line = lines.readLine();
+        }
+        if (line == null) {
+            throw new IOException("Unexpected end of scenario.");
+        }
+        return line;
+    }
+
+    private static int[] parseNumbers(String line, int count) throws IOException {
+        String[] tokens = line.trim().split("\\s+");
+        if (tokens.length < count) {
+            throw new IOException("Expected " + count + " numbers, got line '" + line + "'.");
+        }
+        int[] numbers = new int[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                numbers[i] = Integer.parseInt(tokens[i]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Expected " + count + " numbers, got line '" + line + "'.", e);
+        }
+        return numbers;
+    }
+}
@@ -6,15 +6,22 @@ import java.util.*;
  * Simple genetic algorithm to find a good solution to the Code vs Zombies game.
  *
  * Initial population is a star-shaped set of paths, all originating from the player's initial position.
+ *
+ * Rolling horizon: the plan is evolved again every turn against the current state. The population of the previous
+ * turn, shifted by the played move, is the initial population of the next turn, so the work isn't thrown away.
  */
 class Player {
 
     // main two parameters to tweak
     private static final int MAX_TURNS = 40;
     private static final int INIT_POPULATION_SIZE = 32;
-    private static final int GENERATIONS = 5;
     private static final int N_BEST_TO_MATE = 8;
 
+    // time limits, search stops before the limit so that there's time to print the move
+    private static final long FIRST_TURN_TIME_LIMIT_MS = 1000;
+    private static final long TURN_TIME_LIMIT_MS = 100;
+    private static final long TIME_SAFETY_MARGIN_MS = 25;
+
     // game constraints
     private static final int MAX_X = 16000;
     private static final int MAX_Y = 9000;
@@ -250,16 +257,16 @@ class Player {
 
         boolean isFirstTurn = true;
 
-        int turnCounter = 0;
-
-        // solution is essentially a list of moves
-        List<Position> solution = new ArrayList<>();
+        // population evolved in the previous turn, solution is essentially a list of moves
+        List<List<Position>> population = new ArrayList<>();
 
 
         // game loop
         while (true) {
             // 1st line is Ash
             ash = parsePosition(in.nextLine());
+            // time limit of the turn starts once the input is available
+            final long turnStart = System.nanoTime();
 
             // 2nd line is human count, lines with human position follow
             parseHumanPositions(in, humans);
@@ -267,25 +274,40 @@ class Player {
             // rest is zombies
             parseZombiePositions(in, zombies);
 
+            long timeLimit = isFirstTurn ? FIRST_TURN_TIME_LIMIT_MS : TURN_TIME_LIMIT_MS;
+            long deadline = turnStart + (timeLimit - TIME_SAFETY_MARGIN_MS) * 1_000_000;
             if (isFirstTurn) {
-                // try to find the best solution
-                solution = findBestSolution(ash, humans, zombies);
-                debugPrintSolution(solution);
-                isFirstTurn = false;
+                population = generateStarPopulation(ash, INIT_POPULATION_SIZE, MAX_TURNS);
+            } else {
+                // warm start from the previous turn
+                shiftPopulation(population);
             }
 
-            if (turnCounter < solution.size()) {
-                Position nextMove = solution.get(turnCounter);
-                System.out.println(nextMove.x + " " + nextMove.y);
-            } else {
-                System.out.println("0 0");
+            // try to find the best solution from the current state
+            EvaluatedChromosome best = findBestSolution(population, ash, humans, zombies, deadline);
+            if (isFirstTurn) {
+                debugPrintSolution(best.chromosome());
+                isFirstTurn = false;
             }
 
-            turnCounter++;
+            Position nextMove = best.chromosome().get(0);
+            System.out.println(nextMove.x + " " + nextMove.y);
         }
 
     }
 
+    /**
+     * Drop the first move of every chromosome, it was just played. The last move is repeated, so that
+     * chromosomes keep their length.
+     */
+    private static void shiftPopulation(List<List<Position>> population) {
+        for (int i = 0; i < population.size(); i++) {
+            List<Position> shifted = new ArrayList<>(population.get(i).subList(1, population.get(i).size()));
+            shifted.add(shifted.isEmpty() ? population.get(i).get(0) : shifted.get(shifted.size() - 1));
+            population.set(i, shifted);
+        }
+    }
+
     private static void debugPrintSolution(List<Position> solution) {
         System.err.println("Solution:");
         for (Position move : solution) {
@@ -293,22 +315,31 @@ class Player {
         }
     }
 
-    private static List<Position> findBestSolution(Position ash, List<Position> humans, List<Position> zombies) {
+    /**
+     * Run the genetic algorithm until the deadline. Time of every generation is measured and the next one is only
+     * started if it's expected to finish before the deadline.
+     *
+     * @param population Initial population, replaced by the last generation.
+     * @param deadline Value of System.nanoTime() by which the search has to finish.
+     * @return Best solution found.
+     */
+    private static EvaluatedChromosome findBestSolution(List<List<Position>> population, Position ash, List<Position> humans, List<Position> zombies, long deadline) {
 
         // initial variables
-        List<List<Position>> population;
         List<EvaluatedChromosome> evaluatedPopulation = new ArrayList<>(INIT_POPULATION_SIZE);
-        int bestScore = -1;
-        List<Position> bestSolution = null;
+        EvaluatedChromosome best = null;
+        long generationStart = System.nanoTime();
+        long longestGeneration = 0;
 
         // generic algorithm
-        for (int generation = 0; generation < GENERATIONS; generation++) {
-            if (generation == 0) {
-                // first round = initial population
-                population = generateStarPopulation(ash, INIT_POPULATION_SIZE, MAX_TURNS);
-            } else {
+        for (int generation = 0; ; generation++) {
+            if (generation > 0) {
                 // we have population from previous round, use it to generate new one
-                population = generateOffsprings(evaluatedPopulation, INIT_POPULATION_SIZE);
+                // the best chromosome is kept by elitism, so the older ones can be dropped
+                List<List<Position>> offsprings = generateOffsprings(evaluatedPopulation, INIT_POPULATION_SIZE);
+                population.clear();
+                population.addAll(offsprings);
+                evaluatedPopulation.clear();
             }
 
             // test print population
@@ -324,14 +355,20 @@ class Player {
                 //}
 
                 // find the solution from the current population
-                if (score > bestScore) {
-                    bestScore = score;
-                    bestSolution = chromosome;
-                    System.err.println("Found new best. Chromosome "+popId+" of generation "+generation+": "+bestScore);
+                if (best == null || score > best.score()) {
+                    best = evaluatedPopulation.get(popId);
+                    System.err.println("Found new best. Chromosome "+popId+" of generation "+generation+": "+score);
                 }
             }
+
+            long now = System.nanoTime();
+            longestGeneration = Math.max(longestGeneration, now - generationStart);
+            generationStart = now;
+            if (deadline - now < longestGeneration) {
+                System.err.println("Generations: " + (generation + 1));
+                return best;
+            }
         }
-        return bestSolution;
     }
 
     private static List<List<Position>> generateOffsprings(List<EvaluatedChromosome> evaluatedPopulation, int initPopulationSize) {
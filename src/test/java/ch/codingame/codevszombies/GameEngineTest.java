@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class GameEngineTest {
@@ -77,6 +78,78 @@ class GameEngineTest {
         assertEquals(expectedScore, score);
     }
 
+    @Test
+    void listener_receivesEvents() {
+        final GameState game = new GameState(
+                new ArrayList<>(List.of(new Position(8250,8999))),
+                new Position(0, 0),
+                new ArrayList<>(List.of(new Position(8250,4500)))
+        );
+        final ISolution solution = new StringListSolution("8250 8999", "8250 8599", "8250 8199", "8250 7799", "8250 7399", "8250 6999", "8250 6599", "8250 6199", "8250 5799");
+        final List<String> events = new ArrayList<>();
+
+        GameEngine engine = new GameEngine(new GameEventListener() {
+            @Override
+            public void turnStarted(int turn) {
+                events.add("turn " + turn);
+            }
+
+            @Override
+            public void zombieKilled(int zombieId, int x, int y) {
+                events.add("killed " + zombieId);
+            }
+        });
+        int score = engine.playGame(game, solution);
+
+        assertEquals(10, score);
+        assertEquals("turn 1", events.get(0));
+        assertEquals("killed 0", events.get(events.size() - 1));
+    }
+
+    @Test
+    void playGames() {
+        final GameState game = new GameState(
+                new ArrayList<>(List.of(new Position(8250,8999))),
+                new Position(0, 0),
+                new ArrayList<>(List.of(new Position(8250,4500)))
+        );
+        final ISolution[] batch = new ISolution[] {
+                new StringListSolution("8250 8999", "8250 8599", "8250 8199", "8250 7799", "8250 7399", "8250 6999", "8250 6599", "8250 6199", "8250 5799"),
+                () -> "0 0",
+                new StringListSolution("8250 8999", "8250 8599", "8250 8199", "8250 7799", "8250 7399", "8250 6999", "8250 6599", "8250 6199", "8250 5799"),
+        };
+        final int[] scores = new int[batch.length];
+
+        GameEngine engine = new GameEngine();
+        engine.playGames(game, batch, scores);
+
+        assertArrayEquals(new int[] {10, 0, 10}, scores);
+    }
+
+    @Test
+    void playGame_pruned() {
+        final GameState game = new GameState(
+                new ArrayList<>(List.of(new Position(8250,8999))),
+                new Position(0, 0),
+                new ArrayList<>(List.of(new Position(8250,4500)))
+        );
+        final ISolution solution = new StringListSolution("8250 8999", "8250 8599", "8250 8199", "8250 7799", "8250 7399", "8250 6999", "8250 6599", "8250 6199", "8250 5799");
+        final List<Integer> turns = new ArrayList<>();
+
+        GameEngine engine = new GameEngine(new GameEventListener() {
+            @Override
+            public void turnStarted(int turn) {
+                turns.add(turn);
+            }
+        });
+
+        // 1 zombie and 1 human can't give more than 10 points
+        assertEquals(0, engine.playGame(game, solution, 11));
+        assertEquals(0, turns.size());
+
+        assertEquals(10, engine.playGame(game, solution, 10));
+    }
+
     private ISolution loadSolutionFromResource(String filename) throws FileNotFoundException {
         final String fullFilename = "solutions/failed/"+filename;
         URL resource = this.getClass().getClassLoader().getResource(fullFilename);
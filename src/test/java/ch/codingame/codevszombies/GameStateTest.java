@@ -7,8 +7,10 @@ import org.junit.jupiter.params.provider.CsvSource;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GameStateTest {
 
@@ -20,6 +22,33 @@ class GameStateTest {
         assertEquals(expectedScore, game.calculateScore(kills), "Incorrect score for " + kills + " kills and " + aliveHumans +" humans.");
     }
 
+    @Test
+    void getScore_manyKills() {
+        final GameState game = prapreGameState(1);
+
+        // 1+2+3+5+8+13+21+34+55+89+144+233
+        assertEquals(6080, game.calculateScore(12));
+        assertEquals(Integer.MAX_VALUE, game.calculateScore(100));
+    }
+
+    @Test
+    void maxAchievableScore() {
+        final GameState game = new GameState(
+                new ArrayList<>(List.of(new Position(1,1), new Position(5000,5000))),
+                new Position(0, 0),
+                new ArrayList<>(List.of(new Position(1,2), new Position(8000,8000)))
+        );
+
+        assertEquals(120, game.maxAchievableScore());
+
+        game.eatHumans(2);
+        assertEquals(30, game.maxAchievableScore());
+
+        game.destroyZombies(2000);
+        assertEquals(10, game.getScore());
+        assertEquals(20, game.maxAchievableScore());
+    }
+
     @Test
     void moveZombies() {
         final GameState game = new GameState(
@@ -62,6 +91,61 @@ class GameStateTest {
         assertEquals(1, game.getHumans().size());
     }
 
+    @Test
+    void copyFrom_reset() {
+        final GameState initial = new GameState(
+                new ArrayList<>(List.of(new Position(1,1), new Position(5000,5000))),
+                new Position(0, 0),
+                new ArrayList<>(List.of(new Position(1,2)))
+        );
+        final GameState scratch = new GameState(Collections.emptyList(), new Position(0, 0), Collections.emptyList());
+
+        scratch.copyFrom(initial);
+        scratch.eatHumans(2);
+        scratch.destroyZombies(2000);
+        assertEquals(0, scratch.getHumans().size());
+        assertEquals(null, scratch.getZombies().get(0));
+
+        scratch.reset();
+        assertEquals(initial.getZombies(), scratch.getZombies());
+        assertEquals(initial.getHumans(), scratch.getHumans());
+        assertEquals(initial.getAsh(), scratch.getAsh());
+
+        // initial state is untouched
+        assertEquals(1, initial.getHumans().size());
+    }
+
+    /**
+     * Game with humans indexed by grid must play the same as game which checks humans one by one.
+     */
+    @Test
+    void humanGrid_sameAsLinearScan() {
+        final Random random = new Random(42);
+        final List<Position> zombies = new ArrayList<>();
+        final List<Position> humans = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            zombies.add(new Position(random.nextInt(GameEngine.MAX_X), random.nextInt(GameEngine.MAX_Y)));
+        }
+        for (int i = 0; i < 300; i++) {
+            humans.add(new Position(random.nextInt(GameEngine.MAX_X), random.nextInt(GameEngine.MAX_Y)));
+        }
+        final GameState indexed = new GameState(zombies, new Position(8000, 4500), humans, 1);
+        final GameState scanned = new GameState(zombies, new Position(8000, 4500), humans, Integer.MAX_VALUE);
+
+        for (int turn = 0; turn < 40; turn++) {
+            final Position target = new Position(random.nextInt(GameEngine.MAX_X), random.nextInt(GameEngine.MAX_Y));
+            for (GameState game : List.of(indexed, scanned)) {
+                game.moveZombies(GameEngine.ZOMBIE_RANGE);
+                game.moveAsh(target, GameEngine.ASH_SPEED);
+                game.eatHumans(GameEngine.ZOMBIE_RANGE);
+            }
+
+            assertEquals(scanned.getZombies(), indexed.getZombies(), "Zombies differ in turn " + turn);
+            assertEquals(scanned.getHumans(), indexed.getHumans(), "Humans differ in turn " + turn);
+        }
+        assertTrue(indexed.getHumans().size() < humans.size());
+    }
+
     private GameState prapreGameState(int aliveHumans) {
         List<Position> humans = new ArrayList<>();
         for (int i = 0; i < aliveHumans; i++) {
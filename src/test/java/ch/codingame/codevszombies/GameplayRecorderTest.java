@@ -0,0 +1,155 @@
+package ch.codingame.codevszombies;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameplayRecorderTest {
+
+    private static final String[] TWO_ZOMBIES_MOVES = {
+            "8000 6100", "8000 6100", "8000 6100", "8000 6100", "8000 6100", "8000 6100", "950 6000", "1348 5963", "1746 5926", "2144 5889"
+    };
+
+    @Test
+    void recordGame_sameAsPlayedTurns() {
+        final GameState initial = new GameState(
+                List.of(new Position(3100,7000), new Position(11500,7100)),
+                new Position(5000, 0),
+                new ArrayList<>(List.of(new Position(950,6000), new Position(8000,6100)))
+        );
+        final GameEngine engine = new GameEngine();
+
+        // expected movement from the game played turn by turn
+        final List<Position> ashMovement = new ArrayList<>();
+        final List<List<Position>> zombiesMovement = List.of(new ArrayList<>(), new ArrayList<>());
+        final ISolution solution = new StringListSolution(TWO_ZOMBIES_MOVES);
+        solution.init();
+        final GameState game = initial.clone();
+        while (true) {
+            ashMovement.add(game.getAsh());
+            List<Position> zombies = game.getZombies();
+            for (int zombieId = 0; zombieId < zombies.size(); zombieId++) {
+                if (zombies.get(zombieId) != null) {
+                    zombiesMovement.get(zombieId).add(zombies.get(zombieId));
+                }
+            }
+            if (game.isGameOver()) {
+                break;
+            }
+            engine.playTurn(game, solution);
+        }
+
+        assertEquals(50, engine.playGame(initial, new StringListSolution(TWO_ZOMBIES_MOVES), true));
+        final GameplayRecorder gameplay = engine.getLastGameplayRecord();
+
+        assertEquals(ashMovement, gameplay.getAshMovement());
+        assertEquals(zombiesMovement, gameplay.getZombiesMovement());
+        assertEquals(game.getHumans(), gameplay.getRemainingHumans());
+        assertEquals(zombiesMovement.get(0).size(), gameplay.getZombieFrames(0));
+        assertNotEquals(gameplay.getZombieFrames(0), gameplay.getZombieFrames(1));
+    }
+
+    @Test
+    void forEachPosition_sameAsDecodedLists() {
+        final GameState initial = new GameState(
+                List.of(new Position(3100,7000), new Position(11500,7100)),
+                new Position(5000, 0),
+                new ArrayList<>(List.of(new Position(950,6000), new Position(8000,6100)))
+        );
+        final GameEngine engine = new GameEngine();
+        engine.playGame(initial, new StringListSolution(TWO_ZOMBIES_MOVES), true);
+        assertSameVisitedPositions(engine.getLastGameplayRecord());
+
+        // coordinates of the first zombie are escaped, they are skipped when the second one is visited
+        final GameState far = new GameState(
+                List.of(new Position(40000, 9000), new Position(3100,7000)),
+                new Position(5000, 0),
+                new ArrayList<>(List.of(new Position(950,6000)))
+        );
+        final GameplayRecorder recorder = new GameplayRecorder();
+        for (int turn = 0; turn < 3; turn++) {
+            recorder.recordGameState(far);
+            far.moveZombies(GameEngine.ZOMBIE_RANGE);
+        }
+        recorder.recordRemainingHumans(far);
+        assertSameVisitedPositions(recorder);
+
+        assertEquals(2, recorder.getZombieCount());
+        assertEquals(0, new GameplayRecorder().getZombieCount());
+    }
+
+    @Test
+    void recordAshMovement_bigMoves() {
+        final List<Position> moves = List.of(
+                new Position(0, 0),
+                new Position(32767, -32767),
+                new Position(-1, 32767),
+                new Position(100000, -70000),
+                new Position(Integer.MIN_VALUE, Integer.MAX_VALUE),
+                new Position(Integer.MAX_VALUE, Integer.MIN_VALUE)
+        );
+        final GameplayRecorder recorder = new GameplayRecorder();
+        moves.forEach(recorder::recordAshMovement);
+
+        assertEquals(moves, recorder.getAshMovement());
+    }
+
+    @Test
+    void writeRead_recordingContinues() throws IOException {
+        final GameState game = new GameState(
+                List.of(new Position(3100,7000), new Position(11500,7100)),
+                new Position(5000, 0),
+                new ArrayList<>(List.of(new Position(950,6000), new Position(8000,6100)))
+        );
+        final GameplayRecorder recorder = new GameplayRecorder();
+        recorder.recordGameState(game);
+        game.moveZombies(GameEngine.ZOMBIE_RANGE);
+        recorder.recordGameState(game);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recorder.writeTo(new DataOutputStream(bytes));
+        final GameplayRecorder read = GameplayRecorder.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        game.moveZombies(GameEngine.ZOMBIE_RANGE);
+        recorder.recordGameState(game);
+        recorder.recordRemainingHumans(game);
+        read.recordGameState(game);
+        read.recordRemainingHumans(game);
+
+        assertEquals(recorder.getAshMovement(), read.getAshMovement());
+        assertEquals(recorder.getZombiesMovement(), read.getZombiesMovement());
+        assertEquals(recorder.getRemainingHumans(), read.getRemainingHumans());
+        assertEquals(3, read.getZombiesMovement().get(1).size());
+    }
+
+    @Test
+    void readFrom_notRecording() {
+        final byte[] bytes = new byte[] {1, 2, 3, 4, 5, 6, 7, 8};
+        assertThrows(IOException.class, () -> GameplayRecorder.readFrom(new DataInputStream(new ByteArrayInputStream(bytes))));
+    }
+
+    private static void assertSameVisitedPositions(GameplayRecorder gameplay) {
+        final List<Position> ashMovement = new ArrayList<>();
+        gameplay.forEachAshPosition((x, y) -> ashMovement.add(new Position(x, y)));
+        final List<List<Position>> zombiesMovement = new ArrayList<>();
+        for (int zombieId = 0; zombieId < gameplay.getZombieCount(); zombieId++) {
+            final List<Position> zombieMovement = new ArrayList<>();
+            gameplay.forEachZombiePosition(zombieId, (x, y) -> zombieMovement.add(new Position(x, y)));
+            zombiesMovement.add(zombieMovement);
+        }
+        final List<Position> humans = new ArrayList<>();
+        gameplay.forEachRemainingHuman((x, y) -> humans.add(new Position(x, y)));
+
+        assertEquals(gameplay.getAshMovement(), ashMovement);
+        assertEquals(gameplay.getZombiesMovement(), zombiesMovement);
+        assertEquals(gameplay.getRemainingHumans(), humans);
+    }
+}
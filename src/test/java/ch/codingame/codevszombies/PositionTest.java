@@ -25,4 +25,19 @@ class PositionTest {
         assertEquals(8250, newPosition.x());
         assertEquals(8599, newPosition.y());
     }
+
+    @Test
+    void pack() {
+        final long packed = Position.pack(8250, -1);
+
+        assertEquals(8250, Position.unpackX(packed));
+        assertEquals(-1, Position.unpackY(packed));
+    }
+
+    @Test
+    void parsePacked() {
+        final long packed = Position.parsePacked("8250 8999");
+
+        assertEquals(Position.pack(8250, 8999), packed);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ch.codingame.codevszombies;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SplitMix64Test {
+
+    @Test
+    void mix_sameAsSplitMix64Generator() {
+        // first output of SplitMix64 seeded with 0 is the finalizer of its increment
+        assertEquals(0xE220A8397B1DCDAFL, SplitMix64.mix(0x9E3779B97F4A7C15L));
+        assertEquals(0, SplitMix64.mix(0));
+    }
+}
@@ -0,0 +1,84 @@
+package ch.codingame.codevszombies.export;
+
+import ch.codingame.codevszombies.GameEngine;
+import ch.codingame.codevszombies.GameState;
+import ch.codingame.codevszombies.GameplayRecorder;
+import ch.codingame.codevszombies.Position;
+import ch.codingame.codevszombies.StringListSolution;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SvgExporterTest {
+
+    @Test
+    void exportToSvg_sameDocumentForAllOutputs(@TempDir Path directory) throws IOException {
+        final GameState game = new GameState(
+                List.of(new Position(3100,7000), new Position(11500,7100)),
+                new Position(5000, 0),
+                new ArrayList<>(List.of(new Position(950,6000), new Position(8000,6100)))
+        );
+        final GameEngine engine = new GameEngine();
+        final int score = engine.playGame(game, new StringListSolution(
+                "8000 6100", "8000 6100", "8000 6100", "8000 6100", "8000 6100", "8000 6100", "950 6000", "1348 5963", "1746 5926", "2144 5889"
+        ), true);
+        final GameplayRecorder gameplay = engine.getLastGameplayRecord();
+
+        final String svg = SvgExporter.exportToSvg(game, gameplay, GameEngine.MAX_X, GameEngine.MAX_Y, 1000, 562, score);
+        final StringWriter writer = new StringWriter();
+        SvgExporter.exportToSvg(game, gameplay, GameEngine.MAX_X, GameEngine.MAX_Y, 1000, 562, score, writer);
+        final Path file = directory.resolve("gameplay.svg");
+        SvgExporter.exportToSvg(game, gameplay, GameEngine.MAX_X, GameEngine.MAX_Y, 1000, 562, score, file);
+
+        assertTrue(svg.startsWith("<svg "));
+        assertTrue(svg.endsWith("</svg>"));
+        assertTrue(svg.contains("<path marker-end=\"url(#head-a)\" d=\"M5000,0 L"));
+        assertTrue(svg.contains("Score: " + score + "</text>"));
+        assertEquals(svg, writer.toString());
+        assertEquals(svg, Files.readString(file));
+    }
+
+    /**
+     * Same document as the one produced by the original exporter, which formatted the elements with String.format.
+     */
+    @Test
+    void exportToSvg_sameAsOriginalExport() throws IOException, URISyntaxException {
+        final GameState game = new GameState(
+                List.of(new Position(3100,7000), new Position(11500,7100)),
+                new Position(5000, 0),
+                new ArrayList<>(List.of(new Position(950,6000), new Position(8000,6100)))
+        );
+        final GameEngine engine = new GameEngine();
+        final int score = engine.playGame(game, new StringListSolution(
+                "8000 6100", "8000 6100", "8000 6100", "8000 6100", "8000 6100", "8000 6100", "950 6000", "1348 5963", "1746 5926", "2144 5889"
+        ), true);
+
+        final URL expected = this.getClass().getClassLoader().getResource("svg/twoZombies.svg");
+        assertNotNull(expected);
+        assertEquals(Files.readString(Path.of(expected.toURI())),
+                SvgExporter.exportToSvg(game, engine.getLastGameplayRecord(), GameEngine.MAX_X, GameEngine.MAX_Y, 1000, 562, score));
+    }
+
+    @Test
+    void exportToSvg_negativeCoordinates() {
+        final GameplayRecorder gameplay = new GameplayRecorder();
+        gameplay.recordAshMovement(new Position(-5, -1234567));
+        gameplay.recordAshMovement(new Position(Integer.MIN_VALUE, 0));
+
+        final StringBuilder svg = new StringBuilder();
+        assertDoesNotThrow(() -> SvgExporter.exportToSvg(null, gameplay, 100, 100, 100, 100, -10, svg));
+
+        assertTrue(svg.toString().contains("d=\"M-5,-1234567 L" + Integer.MIN_VALUE + ",0\""));
+        assertTrue(svg.toString().contains("Score: -10</text>"));
+    }
+}
@@ -5,13 +5,17 @@ import ch.codingame.codevszombies.GameState;
 import ch.codingame.codevszombies.GameplayRecorder;
 import ch.codingame.codevszombies.Position;
 import ch.codingame.codevszombies.export.SvgExporter;
+import ch.codingame.codevszombies.scenario.ScenarioGenerator;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -75,6 +79,224 @@ class ContinuousGenericAlgorithmTest {
         assertEquals(5, result[4].score());
     }
 
+    @Test
+    void selectNBestIndexes_sameAsSort() {
+        final Random random = new Random(42);
+        final int[] scores = new int[1000];
+        for (int i = 0; i < scores.length; i++) {
+            // plenty of equal scores and extremes
+            scores[i] = i % 100 == 0 ? Integer.MIN_VALUE : i % 100 == 1 ? Integer.MAX_VALUE : random.nextInt(50);
+        }
+
+        final int[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted((o1, o2) -> Integer.compare(scores[o2], scores[o1]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        for (int n : new int[] {0, 1, 7, 500, 1000, 2000}) {
+            assertArrayEquals(Arrays.copyOf(expected, Math.min(n, scores.length)), ContinuousGenericAlgorithm.selectNBestIndexes(scores, n));
+        }
+    }
+
+    @Test
+    void evaluatePopulation_parallelSameAsSequential() {
+        final int popSize = 64;
+        final int chromoSize = 40;
+        final Random random = new Random(42);
+        final ChromosomeSolution[] population = new ChromosomeSolution[popSize];
+        for (int i = 0; i < popSize; i++) {
+            Position[] genes = new Position[chromoSize];
+            for (int j = 0; j < chromoSize; j++) {
+                genes[j] = new Position(random.nextInt(GameEngine.MAX_X), random.nextInt(GameEngine.MAX_Y));
+            }
+            population[i] = new ChromosomeSolution(genes);
+        }
+        final GameState game = prepareComboOpportunityGameState();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        final int[] sequentialScores = new int[popSize];
+        final int[] parallelScores = new int[popSize];
+        try {
+            new ContinuousGenericAlgorithm(GameEngine.MAX_X, GameEngine.MAX_Y, chromoSize)
+                    .evaluatePopulation(game, population, popSize, sequentialScores, null, Integer.MIN_VALUE);
+            new ContinuousGenericAlgorithm(GameEngine.MAX_X, GameEngine.MAX_Y, chromoSize, executor, 4)
+                    .evaluatePopulation(game, population, popSize, parallelScores, null, Integer.MIN_VALUE);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertArrayEquals(sequentialScores, parallelScores);
+    }
+
+    @Test
+    void run_sameSeed_sameResult() {
+        final GameState game = prepareComboOpportunityGameState();
+        final AlgorithmConfiguration configuration = new AlgorithmConfiguration(20, 5, 10, 0, 0.5f, 0.2f).withSeed(42);
+
+        final EvaluatedChromosome[] result1 = new ContinuousGenericAlgorithm(16000, 9000, 40).run(configuration, game);
+        final EvaluatedChromosome[] result2 = new ContinuousGenericAlgorithm(16000, 9000, 40).run(configuration, game);
+
+        for (int i = 0; i < result1.length; i++) {
+            assertEquals(result1[i].score(), result2[i].score());
+            assertArrayEquals(result1[i].chromosome().getMoves(), result2[i].chromosome().getMoves());
+        }
+    }
+
+    @Test
+    void run_incrementalEvaluation_sameResult() {
+        final GameState game = prepareComboOpportunityGameState();
+        final AlgorithmConfiguration configuration = new AlgorithmConfiguration(20, 10, 10, 30, 0.5f, 0.01f).withSeed(42);
+
+        final EvaluatedChromosome[] result1 = new ContinuousGenericAlgorithm(16000, 9000, 40).run(configuration, game);
+        final AlgorithmConfiguration incremental = configuration.withIncrementalEvaluation(true);
+        final List<EvaluatedChromosome[]> incrementalResults = List.of(
+                new ContinuousGenericAlgorithm(16000, 9000, 40).run(incremental, game),
+                // chromosomes with cached score and recorded chromosomes are not resumed from
+                new ContinuousGenericAlgorithm(16000, 9000, 40).run(incremental.withFitnessCacheSize(1000), game),
+                new ContinuousGenericAlgorithm(16000, 9000, 40).run(incremental, game, new ResultsAggregator())
+        );
+
+        for (EvaluatedChromosome[] result2 : incrementalResults) {
+            for (int i = 0; i < result1.length; i++) {
+                assertEquals(result1[i].score(), result2[i].score());
+                assertArrayEquals(result1[i].chromosome().getMoves(), result2[i].chromosome().getMoves());
+            }
+        }
+    }
+
+    @Test
+    void run_fitnessCache_sameResult() {
+        final GameState game = prepareComboOpportunityGameState();
+        final AlgorithmConfiguration configuration = new AlgorithmConfiguration(20, 10, 10, 0, 0.5f, 0.01f).withSeed(42);
+
+        final ContinuousGenericAlgorithm cachedAlgorithm = new ContinuousGenericAlgorithm(16000, 9000, 40);
+        final EvaluatedChromosome[] result1 = new ContinuousGenericAlgorithm(16000, 9000, 40).run(configuration, game);
+        final EvaluatedChromosome[] result2 = cachedAlgorithm.run(configuration.withFitnessCacheSize(1000), game);
+
+        for (int i = 0; i < result1.length; i++) {
+            assertEquals(result1[i].score(), result2[i].score());
+            assertArrayEquals(result1[i].chromosome().getMoves(), result2[i].chromosome().getMoves());
+        }
+        // mating coefficient 0.5 gives two same children
+        assertTrue(cachedAlgorithm.getFitnessCache().getHits() > 0);
+        assertEquals(200, cachedAlgorithm.getFitnessCache().getHits() + cachedAlgorithm.getFitnessCache().getMisses());
+    }
+
+    @Test
+    void run_pruneHopelessFitnessCache_sameResult() {
+        final GameState game = prepareComboOpportunityGameState();
+        final AlgorithmConfiguration configuration = new AlgorithmConfiguration(20, 20, 10, 0, 0.5f, 0.01f).withSeed(19).withPruneHopeless(true);
+        // with this seed, a cached score from an earlier generation falls below the threshold of a later one
+
+        final EvaluatedChromosome[] result1 = new ContinuousGenericAlgorithm(16000, 9000, 40).run(configuration, game);
+        final EvaluatedChromosome[] result2 = new ContinuousGenericAlgorithm(16000, 9000, 40).run(configuration.withFitnessCacheSize(1000), game);
+
+        for (int i = 0; i < result1.length; i++) {
+            assertEquals(result1[i].score(), result2[i].score());
+            assertArrayEquals(result1[i].chromosome().getMoves(), result2[i].chromosome().getMoves());
+        }
+        assertTrue(Arrays.stream(result1).anyMatch(chromosome -> chromosome.score() == ContinuousGenericAlgorithm.PRUNED_SCORE));
+    }
+
+    @Test
+    void run_pruneHopelessFitnessCache_prunedNotPlayedAgain() {
+        final GameState game = prepareComboOpportunityGameState();
+        final AlgorithmConfiguration configuration = new AlgorithmConfiguration(20, 20, 10, 0, 0.5f, 0.01f).withSeed(19)
+                .withPruneHopeless(true).withFitnessCacheSize(1000);
+        final ContinuousGenericAlgorithm algorithm = new ContinuousGenericAlgorithm(16000, 9000, 40);
+
+        final EvaluatedChromosome[] result1 = algorithm.run(configuration, game);
+        final long misses = algorithm.getFitnessCache().getMisses();
+        final EvaluatedChromosome[] result2 = algorithm.run(configuration, game);
+
+        // same run has the same thresholds, so pruned chromosomes are pruned by their cached bounds
+        assertEquals(misses, algorithm.getFitnessCache().getMisses());
+        for (int i = 0; i < result1.length; i++) {
+            assertEquals(result1[i].score(), result2[i].score());
+        }
+    }
+
+    @Test
+    void run_pruneHopeless_sameResultAsWithout() {
+        final List<GameState> games = new ArrayList<>();
+        games.add(prepareComboOpportunityGameState());
+        new ScenarioGenerator(7, 10, 20).stream().limit(3).forEach(games::add);
+
+        for (GameState game : games) {
+            for (long seed : new long[] {19, 42}) {
+                final AlgorithmConfiguration configuration = new AlgorithmConfiguration(20, 20, 6, 10, 0.5f, 0.05f).withSeed(seed);
+                final AlgorithmConfiguration pruned = configuration.withPruneHopeless(true);
+                final EvaluatedChromosome[] result1 = new ContinuousGenericAlgorithm(16000, 9000, 40).run(configuration, game);
+                final EvaluatedChromosome best1 = new ContinuousGenericAlgorithm(16000, 9000, 40).runUntil(configuration, game, ContinuousGenericAlgorithm.NO_DEADLINE);
+                final EvaluatedChromosome best2 = new ContinuousGenericAlgorithm(16000, 9000, 40).runUntil(pruned, game, ContinuousGenericAlgorithm.NO_DEADLINE);
+                final List<EvaluatedChromosome[]> prunedResults = List.of(
+                        new ContinuousGenericAlgorithm(16000, 9000, 40).run(pruned, game),
+                        new ContinuousGenericAlgorithm(16000, 9000, 40).run(pruned.withFitnessCacheSize(1000), game),
+                        new ContinuousGenericAlgorithm(16000, 9000, 40).run(pruned.withIncrementalEvaluation(true), game),
+                        new ContinuousGenericAlgorithm(16000, 9000, 40).run(pruned, game, new ResultsAggregator())
+                );
+
+                assertEquals(best1.score(), best2.score());
+                assertArrayEquals(best1.chromosome().getMoves(), best2.chromosome().getMoves());
+                for (EvaluatedChromosome[] result2 : prunedResults) {
+                    for (int i = 0; i < result1.length; i++) {
+                        if (result2[i].score() != ContinuousGenericAlgorithm.PRUNED_SCORE) {
+                            assertEquals(result1[i].score(), result2[i].score());
+                        }
+                        assertArrayEquals(result1[i].chromosome().getMoves(), result2[i].chromosome().getMoves());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void run_recordPolicy_sameGameplays() {
+        final GameState game = prepareComboOpportunityGameState();
+        final AlgorithmConfiguration configuration = new AlgorithmConfiguration(20, 5, 10, 0, 0.5f, 0.01f).withSeed(42);
+        final ResultsAggregator all = new ResultsAggregator();
+        final ResultsAggregator top = new ResultsAggregator(RecordPolicy.top(3));
+        final ResultsAggregator none = new ResultsAggregator(RecordPolicy.NONE);
+
+        new ContinuousGenericAlgorithm(16000, 9000, 40).run(configuration, game, all);
+        new ContinuousGenericAlgorithm(16000, 9000, 40).run(configuration.withFitnessCacheSize(1000), game, top);
+        new ContinuousGenericAlgorithm(16000, 9000, 40).run(configuration, game, none);
+
+        assertArrayEquals(all.getBestTrend(), top.getBestTrend());
+        assertArrayEquals(all.getBestTrend(), none.getBestTrend());
+        for (int generation = 0; generation < 5; generation++) {
+            GameplayRecorder[] allGameplays = all.getGenerationGameplays().get(generation);
+            GameplayRecorder[] topGameplays = top.getGenerationGameplays().get(generation);
+            assertNull(none.getGenerationGameplays().get(generation));
+            assertEquals(3, Arrays.stream(topGameplays).filter(Objects::nonNull).count());
+
+            for (int chromosomeId = 0; chromosomeId < topGameplays.length; chromosomeId++) {
+                if (topGameplays[chromosomeId] != null) {
+                    assertSameGameplay(allGameplays[chromosomeId], topGameplays[chromosomeId]);
+                }
+            }
+            int bestId = all.getBestIds()[generation];
+            assertNotNull(topGameplays[bestId]);
+            assertSameGameplay(allGameplays[bestId], none.replay(game, generation, bestId));
+        }
+    }
+
+    @Test
+    void runUntil_bestBeforeDeadline() {
+        final GameState game = prepareComboOpportunityGameState();
+        final AlgorithmConfiguration configuration = new AlgorithmConfiguration(20, Integer.MAX_VALUE, 10, 0, 0.5f, 0.2f).withSeed(42);
+        final ContinuousGenericAlgorithm algorithm = new ContinuousGenericAlgorithm(16000, 9000, 40);
+
+        final long start = System.nanoTime();
+        final EvaluatedChromosome best = algorithm.runUntil(configuration, game, start + 200_000_000L);
+        final long elapsed = System.nanoTime() - start;
+
+        // generous tolerance for slow machines, without the deadline it would never end
+        assertTrue(elapsed < 1_000_000_000L, "elapsed " + elapsed + " ns");
+        assertNotEquals(0, best.score());
+        assertEquals(best.score(), new GameEngine().playGame(game, best.chromosome()));
+    }
+
     @Test
     void run_simple_1Gen() {
         final ContinuousGenericAlgorithm algorithm = new ContinuousGenericAlgorithm(16000, 9000, 12);
@@ -260,6 +482,12 @@ class ContinuousGenericAlgorithmTest {
         );
     }
 
+    private static void assertSameGameplay(GameplayRecorder expected, GameplayRecorder actual) {
+        assertEquals(expected.getAshMovement(), actual.getAshMovement());
+        assertEquals(expected.getZombiesMovement(), actual.getZombiesMovement());
+        assertEquals(expected.getRemainingHumans(), actual.getRemainingHumans());
+    }
+
     private GameState prepareComboOpportunityGameState() {
         return new GameState(
                 new ArrayList<>(List.of(
@@ -1,5 +1,6 @@
 package ch.codingame.codevszombies.ga;
 
+import ch.codingame.codevszombies.GameCheckpoints;
 import ch.codingame.codevszombies.Position;
 import org.junit.jupiter.api.Test;
 
@@ -24,4 +25,40 @@ class EvaluatedChromosomeTest {
             assertEquals(600, child.getMoves()[1].y());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void mateWith_crossoverPoint() {
+        final EvaluatedChromosome chromosome1 = new EvaluatedChromosome(new ChromosomeSolution(new Position(100, 200), new Position(300, 400)), 1);
+        final EvaluatedChromosome chromosome2 = new EvaluatedChromosome(new ChromosomeSolution(new Position(500, 600), new Position(700, 800)), 1);
+
+        final ChromosomeSolution[] children = chromosome1.mateWith(chromosome2, 0.5f, 1);
+
+        // first gene is inherited, second is mated
+        assertEquals(new Position(100, 200), children[0].getMoves()[0]);
+        assertEquals(new Position(500, 600), children[1].getMoves()[0]);
+        assertEquals(new Position(500, 600), children[0].getMoves()[1]);
+        assertEquals(new Position(500, 600), children[1].getMoves()[1]);
+        assertEquals(1, children[0].getFirstChangedMove());
+        assertEquals(1, children[1].getFirstChangedMove());
+    }
+
+    @Test
+    void mateWith_childrenResumeFromParents() {
+        final ChromosomeSolution parent1 = new ChromosomeSolution(new Position(100, 200), new Position(300, 400));
+        final ChromosomeSolution parent2 = new ChromosomeSolution(new Position(500, 600), new Position(700, 800));
+        parent1.setCheckpoints(new GameCheckpoints());
+        parent2.setCheckpoints(new GameCheckpoints());
+
+        final ChromosomeSolution[] children = new EvaluatedChromosome(parent1, 1).mateWith(new EvaluatedChromosome(parent2, 1), 0.5f, 1);
+        final ChromosomeSolution[] grandchildren = new EvaluatedChromosome(children[0], 1).mateWith(new EvaluatedChromosome(children[1], 1), 0.5f, 2);
+
+        assertSame(parent1.getCheckpoints(), children[0].getResumeCheckpoints());
+        assertSame(parent2.getCheckpoints(), children[1].getResumeCheckpoints());
+        // children don't have checkpoints, grandchildren have nothing to resume from
+        assertNull(grandchildren[0].getResumeCheckpoints());
+        assertEquals(2, grandchildren[0].getFirstChangedMove());
+
+        children[0].setParent(null);
+        assertNull(children[0].getResumeCheckpoints());
+    }
+}
@@ -0,0 +1,91 @@
+package ch.codingame.codevszombies.ga;
+
+import ch.codingame.codevszombies.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FitnessCacheTest {
+
+    @Test
+    void getPut() {
+        final FitnessCache cache = new FitnessCache(2);
+
+        assertEquals(FitnessCache.NOT_CACHED, cache.get(1));
+        cache.put(1, 10);
+        cache.put(2, 20);
+        assertEquals(10, cache.get(1));
+
+        // 2 wasn't read since it was put, so it's evicted
+        cache.put(3, 30);
+        assertEquals(2, cache.size());
+        assertEquals(10, cache.get(1));
+        assertEquals(FitnessCache.NOT_CACHED, cache.get(2));
+        assertEquals(30, cache.get(3));
+
+        assertEquals(3, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void putBelow() {
+        final FitnessCache cache = new FitnessCache(4);
+        cache.put(1, 0);
+        cache.putBelow(2, 0);
+        cache.putBelow(3, 500);
+
+        assertFalse(FitnessCache.isBound(cache.get(1)));
+        assertTrue(FitnessCache.isBound(cache.get(2)));
+        assertEquals(0, FitnessCache.bound(cache.get(2)));
+        assertEquals(500, FitnessCache.bound(cache.get(3)));
+        assertFalse(FitnessCache.isBound(cache.get(4)));
+
+        // real score replaces the bound
+        cache.put(3, 100);
+        assertEquals(100, cache.get(3));
+    }
+
+    @Test
+    void manyKeys_cachedScoresAreCorrect() {
+        final FitnessCache cache = new FitnessCache(100);
+        final Map<Long, Integer> expected = new HashMap<>();
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 10000; i++) {
+            // few distinct low bits, so that keys collide in the table
+            long key = random.nextInt(300) * 1024L;
+            int score = cache.get(key);
+            if (score == FitnessCache.NOT_CACHED) {
+                expected.put(key, i);
+                cache.put(key, i);
+            } else {
+                assertEquals(expected.get(key), score);
+            }
+        }
+        assertEquals(100, cache.size());
+        assertTrue(cache.getHits() > 0);
+    }
+
+    @Test
+    void invalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new FitnessCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new FitnessCache(-1));
+        assertThrows(IllegalArgumentException.class, () -> new FitnessCache(FitnessCache.MAX_CAPACITY + 1));
+        assertThrows(IllegalArgumentException.class, () -> new FitnessCache(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void key_sameGenes_sameKey() {
+        final ChromosomeSolution chromosome1 = new ChromosomeSolution(new Position(100, 200), new Position(300, 400));
+        final ChromosomeSolution chromosome2 = new ChromosomeSolution(new Position(100, 200), new Position(300, 400));
+        final ChromosomeSolution chromosome3 = new ChromosomeSolution(new Position(300, 400), new Position(100, 200));
+
+        assertEquals(FitnessCache.key(1, chromosome1), FitnessCache.key(1, chromosome2));
+        assertNotEquals(FitnessCache.key(1, chromosome1), FitnessCache.key(2, chromosome1));
+        assertNotEquals(FitnessCache.key(1, chromosome1), FitnessCache.key(1, chromosome3));
+    }
+}
@@ -0,0 +1,94 @@
+package ch.codingame.codevszombies.ga;
+
+import ch.codingame.codevszombies.GameEngine;
+import ch.codingame.codevszombies.GameState;
+import ch.codingame.codevszombies.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IslandModelRunnerTest {
+
+    @Test
+    void run_comboOpportunity() {
+        final GameState game = new GameState(
+                new ArrayList<>(List.of(
+                        new Position(8000,4500),
+                        new Position(9000,4500),
+                        new Position(10000,4500),
+                        new Position(11000,4500),
+                        new Position(12000,4500),
+                        new Position(13000,4500),
+                        new Position(14000,4500),
+                        new Position(15000,3500),
+                        new Position(14500,2500),
+                        new Position(15900,500)
+                )),
+                new Position(500,4500),
+                new ArrayList<>(List.of(
+                        new Position(100,4000),
+                        new Position(130,5000),
+                        new Position(10,4500),
+                        new Position(500,3500),
+                        new Position(10,5500),
+                        new Position(100,3000)
+                ))
+        );
+        final AlgorithmConfiguration configuration = new AlgorithmConfiguration(20, 10, 10, 0, 0.5f, 0.2f).withSeed(42);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        final EvaluatedChromosome best;
+        try {
+            best = new IslandModelRunner(GameEngine.MAX_X, GameEngine.MAX_Y, 40, 4, executor).run(configuration, game, 2, 2);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertNotEquals(0, best.score());
+        assertEquals(best.score(), new GameEngine().playGame(game, best.chromosome()));
+    }
+
+    @Test
+    void generationEvaluated_bestImmigrantsReplaceWorst() {
+        final IslandModelRunner.Island island = new IslandModelRunner.Island(1, 2);
+        island.next = island;
+        final EvaluatedChromosome[] population = new EvaluatedChromosome[] {
+                evaluated(10), evaluated(20), evaluated(30), evaluated(40)
+        };
+
+        // worse immigrant arrives first, it must not take the place of the better one
+        final IslandModelRunner.Island previous = new IslandModelRunner.Island(1, 2);
+        previous.next = island;
+        previous.generationEvaluated(0, new EvaluatedChromosome[] { evaluated(15) });
+        previous.generationEvaluated(1, new EvaluatedChromosome[] { evaluated(50) });
+        island.generationEvaluated(1, population);
+
+        assertArrayEquals(new int[] { 50, 20, 30, 40 }, Arrays.stream(population).mapToInt(EvaluatedChromosome::score).toArray());
+    }
+
+    @Test
+    void invalidArguments() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertThrows(IllegalArgumentException.class, () -> new IslandModelRunner(GameEngine.MAX_X, GameEngine.MAX_Y, 40, 0, executor));
+
+            final IslandModelRunner runner = new IslandModelRunner(GameEngine.MAX_X, GameEngine.MAX_Y, 40, 2, executor);
+            final AlgorithmConfiguration configuration = new AlgorithmConfiguration(4, 1, 2, 0, 0.5f, 0.2f);
+            final GameState game = new GameState(List.of(new Position(0, 0)), new Position(500, 500), new ArrayList<>(List.of(new Position(1000, 1000))));
+            assertThrows(IllegalArgumentException.class, () -> runner.run(configuration, game, 0, 1));
+            assertThrows(IllegalArgumentException.class, () -> runner.run(configuration, game, 1, -1));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static EvaluatedChromosome evaluated(int score) {
+        return new EvaluatedChromosome(new ChromosomeSolution(new Position(score, score)), score);
+    }
+}
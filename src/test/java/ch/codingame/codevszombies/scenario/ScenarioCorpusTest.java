@@ -0,0 +1,105 @@
+package ch.codingame.codevszombies.scenario;
+
+import ch.codingame.codevszombies.GameState;
+import ch.codingame.codevszombies.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioCorpusTest {
+
+    @Test
+    void writeOpen_roundTrip(@TempDir Path directory) throws IOException {
+        final Random random = new Random(42);
+        final List<GameState> scenarios = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            List<Position> humans = new ArrayList<>();
+            for (int j = random.nextInt(10) + 1; j > 0; j--) {
+                humans.add(new Position(random.nextInt(16000), random.nextInt(9000)));
+            }
+            List<Position> zombies = new ArrayList<>();
+            for (int j = random.nextInt(100) + 1; j > 0; j--) {
+                zombies.add(new Position(random.nextInt(16000), random.nextInt(9000)));
+            }
+            scenarios.add(new GameState(zombies, new Position(random.nextInt(16000), random.nextInt(9000)), humans));
+        }
+        final Path file = directory.resolve("corpus.cvzs");
+
+        assertEquals(scenarios.size(), ScenarioCorpus.write(file, scenarios));
+
+        final ScenarioCorpus corpus = ScenarioCorpus.open(file);
+        final Iterator<GameState> read = corpus.iterator();
+        for (GameState scenario : scenarios) {
+            assertTrue(read.hasNext());
+            ScenarioLoaderTest.assertSameScenario(scenario, read.next());
+        }
+        assertFalse(read.hasNext());
+
+        // every stream starts from the first scenario
+        assertEquals(scenarios.size(), corpus.stream().count());
+        assertEquals(scenarios.size(), corpus.stream().count());
+    }
+
+    @Test
+    void open_notCorpus(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("scenario.cvzs");
+        Files.writeString(file, "0 0\n0\n0\n");
+
+        assertThrows(IOException.class, () -> ScenarioCorpus.open(file));
+    }
+
+    @Test
+    void iterator_outOfMap(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("corpus.cvzs");
+        final GameState valid = new GameState(List.of(new Position(100, 100)), new Position(0, 0), new ArrayList<>(List.of(new Position(500, 500))));
+        final GameState outOfMap = new GameState(List.of(new Position(100, 100)), new Position(0, 0), new ArrayList<>(List.of(new Position(50000, 500))));
+        ScenarioCorpus.write(file, List.of(valid, outOfMap));
+
+        final Iterator<GameState> read = ScenarioCorpus.open(file).iterator();
+        ScenarioLoaderTest.assertSameScenario(valid, read.next());
+        final IllegalStateException e = assertThrows(IllegalStateException.class, read::next);
+        assertTrue(e.getMessage().contains("scenario 1 "));
+        assertTrue(e.getCause().getMessage().contains("50000 500"));
+    }
+
+    @Test
+    void open_truncatedHeader(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("corpus.cvzs");
+        Files.write(file, ByteBuffer.allocate(6).putInt(ScenarioCorpus.MAGIC).array());
+
+        assertThrows(IOException.class, () -> ScenarioCorpus.open(file));
+    }
+
+    @Test
+    void iterator_corruptedScenario(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("corpus.cvzs");
+        ScenarioCorpus.write(file, List.of(new GameState(
+                List.of(new Position(100, 100)), new Position(0, 0), new ArrayList<>(List.of(new Position(500, 500))))));
+        final byte[] bytes = Files.readAllBytes(file);
+
+        // human count right after the header and Ash, doubled it overflows to a negative number
+        for (int count : new int[] {0x40000000, 0x40000001, Integer.MAX_VALUE, -1, 3}) {
+            ByteBuffer.wrap(bytes).putInt(16, count);
+            Files.write(file, bytes);
+            final Iterator<GameState> read = ScenarioCorpus.open(file).iterator();
+
+            assertTrue(read.hasNext());
+            assertThrows(IllegalStateException.class, read::next);
+        }
+
+        // scenario cut after Ash
+        Files.write(file, Arrays.copyOf(bytes, 16));
+        assertThrows(IllegalStateException.class, ScenarioCorpus.open(file).iterator()::next);
+    }
+}
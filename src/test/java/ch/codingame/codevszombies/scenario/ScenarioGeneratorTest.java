@@ -0,0 +1,61 @@
+package ch.codingame.codevszombies.scenario;
+
+import ch.codingame.codevszombies.GameEngine;
+import ch.codingame.codevszombies.GameState;
+import ch.codingame.codevszombies.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioGeneratorTest {
+
+    @Test
+    void stream_sameSeed_sameScenarios() {
+        final ScenarioGenerator generator = new ScenarioGenerator(42, 10, 20).withClustering(0.5, 2);
+
+        final List<GameState> first = generator.stream().limit(10).collect(Collectors.toList());
+        final List<GameState> second = generator.stream().limit(10).collect(Collectors.toList());
+
+        assertEquals(10, first.size());
+        for (int i = 0; i < first.size(); i++) {
+            ScenarioLoaderTest.assertSameScenario(first.get(i), second.get(i));
+            ScenarioLoaderTest.assertSameScenario(first.get(i), generator.generate(i));
+        }
+        assertNotEquals(first.get(0).getZombies(), first.get(1).getZombies());
+        assertNotEquals(first.get(0).getZombies(), generator.withSeed(43).generate(0).getZombies());
+    }
+
+    @Test
+    void generate_countsAndMapSize() {
+        final ScenarioGenerator generator = new ScenarioGenerator(1, 1000, 1500)
+                .withClustering(1, 5)
+                .withMapSize(4000, 3000);
+
+        final GameState scenario = generator.generate(7);
+
+        assertEquals(1000, scenario.getHumans().size());
+        assertEquals(1500, scenario.getZombies().size());
+        assertInMap(scenario.getAsh(), 4000, 3000);
+        scenario.getHumans().forEach(human -> assertInMap(human, 4000, 3000));
+        scenario.getZombies().forEach(zombie -> assertInMap(zombie, 4000, 3000));
+    }
+
+    @Test
+    void invalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(1, 1, 1).withClustering(1.5, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(1, 1, 1).withMapSize(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(1, 1, 1).withMapSize(GameEngine.MAX_X + 1, GameEngine.MAX_Y));
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(1, 1, 1).withMapSize(GameEngine.MAX_X, GameEngine.MAX_Y + 1));
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioGenerator(1, 1, 1).withMapSize(40000, 30000));
+        assertDoesNotThrow(() -> new ScenarioGenerator(1, 1, 1).withMapSize(GameEngine.MAX_X, GameEngine.MAX_Y));
+    }
+
+    private static void assertInMap(Position position, int width, int height) {
+        assertTrue(position.x() >= 0 && position.x() < width && position.y() >= 0 && position.y() < height,
+                () -> position + " is outside of the map");
+    }
+}
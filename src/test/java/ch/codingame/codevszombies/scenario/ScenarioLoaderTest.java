@@ -0,0 +1,114 @@
+package ch.codingame.codevszombies.scenario;
+
+import ch.codingame.codevszombies.GameEngine;
+import ch.codingame.codevszombies.GameState;
+import ch.codingame.codevszombies.Position;
+import ch.codingame.codevszombies.StringListSolution;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioLoaderTest {
+
+    @Test
+    void load_comboOpportunity() throws IOException, URISyntaxException {
+        final GameState scenario = ScenarioLoader.load(resource("scenarios/comboOpportunity.txt"));
+        final StringListSolution solution = new StringListSolution(
+                "8000 4500", "7600 4500", "7200 4500", "6800 4500", "7400 4500", "8000 4500", "8600 4500", "10200 4500", "10800 4500",
+                "11423 3882", "12262 2054"
+        );
+
+        assertEquals(new Position(500, 4500), scenario.getAsh());
+        assertEquals(6, scenario.getHumans().size());
+        assertEquals(10, scenario.getZombies().size());
+        assertEquals(4320, new GameEngine().playGame(scenario, solution));
+    }
+
+    @Test
+    void textFormat_roundTrip() throws IOException {
+        final GameState scenario = new GameState(
+                List.of(new Position(3100,7000), new Position(11500,7100)),
+                new Position(5000, 0),
+                new ArrayList<>(List.of(new Position(950,6000), new Position(8000,6100)))
+        );
+
+        final StringWriter text = new StringWriter();
+        ScenarioTextFormat.write(scenario, text);
+        final GameState read = ScenarioTextFormat.read(new StringReader(text.toString()));
+
+        assertSameScenario(scenario, read);
+    }
+
+    @Test
+    void textFormat_truncated() {
+        assertThrows(IOException.class, () -> ScenarioTextFormat.read(new StringReader("0 0\n2\n0 100 100\n")));
+    }
+
+    @Test
+    void textFormat_outOfMap() {
+        for (String position : new String[] {"-1 100", "100 -1", "16001 100", "100 9001", "2147483647 0"}) {
+            IOException ash = assertThrows(IOException.class, () -> ScenarioTextFormat.read(new StringReader(position + "\n1\n0 100 100\n1\n0 200 200\n")));
+            IOException human = assertThrows(IOException.class, () -> ScenarioTextFormat.read(new StringReader("0 0\n1\n0 " + position + "\n1\n0 200 200\n")));
+            IOException zombie = assertThrows(IOException.class, () -> ScenarioTextFormat.read(new StringReader("0 0\n1\n0 100 100\n1\n7 " + position + " 0 0\n")));
+
+            assertTrue(ash.getMessage().contains("'" + position + "'"));
+            assertTrue(human.getMessage().contains("'0 " + position + "'"));
+            assertTrue(zombie.getMessage().contains("'7 " + position + " 0 0'"));
+        }
+        assertThrows(IOException.class, () -> ScenarioTextFormat.read(new StringReader("0 0\n-1\n1\n0 200 200\n")));
+        assertDoesNotThrow(() -> ScenarioTextFormat.read(new StringReader("16000 9000\n1\n0 0 0\n1\n0 16000 0\n")));
+    }
+
+    @Test
+    void stream_directory(@TempDir Path directory) throws IOException {
+        final List<GameState> scenarios = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            scenarios.add(new GameState(
+                    List.of(new Position(1000 * i, 2000)),
+                    new Position(i, i),
+                    List.of(new Position(10, 10 * i), new Position(20, 20 * i))
+            ));
+        }
+        ScenarioLoader.save(scenarios.get(0), directory.resolve("a" + ScenarioLoader.TEXT_EXTENSION));
+        ScenarioCorpus.write(directory.resolve("b" + ScenarioLoader.CORPUS_EXTENSION), scenarios.subList(1, 4));
+        ScenarioLoader.save(scenarios.get(4), directory.resolve("c" + ScenarioLoader.TEXT_EXTENSION));
+        Files.writeString(directory.resolve("ignored.csv"), "not a scenario");
+
+        final List<GameState> loaded;
+        try (Stream<GameState> stream = ScenarioLoader.stream(directory)) {
+            loaded = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(scenarios.size(), loaded.size());
+        for (int i = 0; i < scenarios.size(); i++) {
+            assertSameScenario(scenarios.get(i), loaded.get(i));
+        }
+    }
+
+    static void assertSameScenario(GameState expected, GameState actual) {
+        assertEquals(expected.getAsh(), actual.getAsh());
+        assertEquals(expected.getHumans(), actual.getHumans());
+        assertEquals(expected.getZombies(), actual.getZombies());
+    }
+
+    private Path resource(String name) throws URISyntaxException {
+        URL resource = this.getClass().getClassLoader().getResource(name);
+        if (resource == null) {
+            throw new IllegalArgumentException("file " + name + " not found!");
+        }
+        return Path.of(resource.toURI());
+    }
+}